@@ -0,0 +1,29 @@
+package org.pitest.quickbuilder;
+
+/**
+ * Creates instances of a generated builder. Obtaining a factory resolves and
+ * caches everything needed to instantiate the builder, so creating builders
+ * from it is as cheap as a constructor call.
+ *
+ * @param <T> The built type
+ * @param <B> The builder interface
+ */
+public interface BuilderFactory<T, B extends Builder<T>> {
+
+  /**
+   * Creates a builder that constructs the built type using its no args
+   * constructor.
+   *
+   * @return A new builder
+   */
+  B newBuilder();
+
+  /**
+   * Creates a builder that constructs the built type using the supplied seed.
+   *
+   * @param seed Function object that constructs instances of the built type
+   * @return A new builder
+   */
+  B newBuilder(Generator<B, T> seed);
+
+}
@@ -0,0 +1,48 @@
+package org.pitest.quickbuilder;
+
+/**
+ * Snapshot of the counters maintained by the on disk cache of generated
+ * builder classes.
+ */
+public final class CacheStatistics {
+
+  private final long hits;
+  private final long misses;
+  private final long invalidations;
+
+  public CacheStatistics(final long hits, final long misses,
+      final long invalidations) {
+    this.hits = hits;
+    this.misses = misses;
+    this.invalidations = invalidations;
+  }
+
+  /**
+   * @return Number of builder classes defined from cached bytes
+   */
+  public long hits() {
+    return this.hits;
+  }
+
+  /**
+   * @return Number of builder classes that had to be generated
+   */
+  public long misses() {
+    return this.misses;
+  }
+
+  /**
+   * @return Number of cache entries discarded because they were stale or
+   *         unreadable
+   */
+  public long invalidations() {
+    return this.invalidations;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStatistics [hits=" + this.hits + ", misses=" + this.misses
+        + ", invalidations=" + this.invalidations + "]";
+  }
+
+}
@@ -0,0 +1,19 @@
+package org.pitest.quickbuilder;
+
+/**
+ * A builder of Double values that can also supply them as a double, without
+ * boxing.
+ * 
+ * Generated builders call buildDouble rather than build when a DoubleBuilder
+ * supplies a double property.
+ */
+public interface DoubleBuilder extends Builder<Double> {
+
+  /**
+   * Constructs a double using state within the builder
+   * 
+   * @return a double
+   */
+  double buildDouble();
+
+}
@@ -0,0 +1,19 @@
+package org.pitest.quickbuilder;
+
+/**
+ * A builder of Integer values that can also supply them as an int, without
+ * boxing.
+ * 
+ * Generated builders call buildInt rather than build when an IntBuilder
+ * supplies an int property.
+ */
+public interface IntBuilder extends Builder<Integer> {
+
+  /**
+   * Constructs an int using state within the builder
+   * 
+   * @return an int
+   */
+  int buildInt();
+
+}
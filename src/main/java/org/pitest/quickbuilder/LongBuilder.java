@@ -0,0 +1,19 @@
+package org.pitest.quickbuilder;
+
+/**
+ * A builder of Long values that can also supply them as a long, without
+ * boxing.
+ * 
+ * Generated builders call buildLong rather than build when a LongBuilder
+ * supplies a long property.
+ */
+public interface LongBuilder extends Builder<Long> {
+
+  /**
+   * Constructs a long using state within the builder
+   * 
+   * @return a long
+   */
+  long buildLong();
+
+}
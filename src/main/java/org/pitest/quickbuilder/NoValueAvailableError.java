@@ -12,4 +12,16 @@ public final class NoValueAvailableError extends QuickBuilderError {
     super(message);
   }
 
+  /**
+   * Generated builders throw a single preallocated instance without a stack
+   * trace for each property.
+   *
+   * @param message Error message
+   * @param writableStackTrace false to suppress the stack trace
+   */
+  public NoValueAvailableError(final String message,
+      final boolean writableStackTrace) {
+    super(message, writableStackTrace);
+  }
+
 }
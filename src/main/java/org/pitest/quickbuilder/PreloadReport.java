@@ -0,0 +1,64 @@
+package org.pitest.quickbuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of preloading a set of builder interfaces.
+ */
+public final class PreloadReport {
+
+  private final Map<Class<?>, Long>              generationNanos;
+  private final Map<Class<?>, QuickBuilderError> failures;
+  private final long                             elapsedNanos;
+
+  public PreloadReport(final Map<Class<?>, Long> generationNanos,
+      final Map<Class<?>, QuickBuilderError> failures, final long elapsedNanos) {
+    this.generationNanos = Collections
+        .unmodifiableMap(new LinkedHashMap<Class<?>, Long>(generationNanos));
+    this.failures = Collections
+        .unmodifiableMap(new LinkedHashMap<Class<?>, QuickBuilderError>(
+            failures));
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * @return Time in nanoseconds taken to resolve each successfully preloaded
+   *         interface. Interfaces that were already loaded take close to zero.
+   */
+  public Map<Class<?>, Long> generationNanos() {
+    return this.generationNanos;
+  }
+
+  /**
+   * @return The error raised for each interface that could not be
+   *         implemented
+   */
+  public Map<Class<?>, QuickBuilderError> failures() {
+    return this.failures;
+  }
+
+  /**
+   * @return Wall clock time in nanoseconds taken by the preload
+   */
+  public long elapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * @return true if every interface was preloaded
+   */
+  public boolean isSuccessful() {
+    return this.failures.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "PreloadReport [loaded=" + this.generationNanos.size()
+        + ", failed=" + this.failures.size() + ", elapsedMillis="
+        + TimeUnit.NANOSECONDS.toMillis(this.elapsedNanos) + "]";
+  }
+
+}
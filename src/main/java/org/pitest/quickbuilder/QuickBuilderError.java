@@ -15,4 +15,14 @@ public class QuickBuilderError extends RuntimeException {
   public QuickBuilderError(final String message) {
     super(message);
   }
+
+  /**
+   * @param message Error message
+   * @param writableStackTrace false to create an error without a stack trace
+   *          that may be preallocated and thrown repeatedly
+   */
+  protected QuickBuilderError(final String message,
+      final boolean writableStackTrace) {
+    super(message, null, writableStackTrace, writableStackTrace);
+  }
 }
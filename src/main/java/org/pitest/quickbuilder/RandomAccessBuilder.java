@@ -0,0 +1,22 @@
+package org.pitest.quickbuilder;
+
+/**
+ * A builder that can move to a later position in its sequence without
+ * stepping through, or building, the positions in between.
+ * 
+ * Implementing this interface is optional. Sequences of builders that do not
+ * implement it are stepped through one position at a time.
+ * 
+ * @param <T> The type to build
+ */
+public interface RandomAccessBuilder<T> extends Builder<T> {
+
+  /**
+   * Returns the builder n positions further along the sequence.
+   * 
+   * @param n Number of positions to advance, not negative
+   * @return Some builder or None if the sequence is not long enough
+   */
+  Maybe<Builder<T>> advance(long n);
+
+}
@@ -1,6 +1,14 @@
 package org.pitest.quickbuilder;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Builder that provides convenience methods for creating sequences of values
@@ -24,16 +32,27 @@ public interface SequenceBuilder<T> extends Builder<T>, Iterable<T> {
   /**
    * Builds a list with the maximum possible number of entries.
    * 
-   * WARNING. If called on a builder that is composed of only constants then
-   * this method will not terminate as the list will be of inifnite size.
-   * 
    * The size of the list is limited by the sizes of the shortest sequence
    * within the builder graph.
    * 
+   * WARNING. If the builder draws on a sequence whose length cannot be
+   * determined, and that sequence never ends, this method will not terminate.
    * 
    * @return A List of Ts.
+   * @throws QuickBuilderError if the sequence is known to be infinite
    */
   List<T> buildAll();
+
+  /**
+   * Reports the length of this sequence as far as it can be determined
+   * without building it. Sequences that do not override this report an
+   * unknown length.
+   * 
+   * @return The length of the sequence
+   */
+  default SequenceLength length() {
+    return SequenceLength.unknown();
+  }
   
   /**
    * Limits the sequence represented by this builder.
@@ -42,4 +61,131 @@ public interface SequenceBuilder<T> extends Builder<T>, Iterable<T> {
    * @return A builder sequence of at most limit length
    */
   SequenceBuilder<T> limit(int limit);
+
+  /**
+   * Returns the sequence starting n values on from this one. Skipping past the
+   * end returns an empty sequence.
+   * 
+   * Sequences that implement RandomAccessBuilder, such as arithmetic, element
+   * and repeated sequences, skip in constant time. Others are stepped through
+   * without building the skipped values.
+   * 
+   * @param n Number of values to skip
+   * @return A builder sequence without the first n values
+   * @throws QuickBuilderError if the sequence steps to a builder that is not a
+   *           SequenceBuilder
+   */
+  @SuppressWarnings("unchecked")
+  default SequenceBuilder<T> skip(final int n) {
+    final Maybe<Builder<T>> advanced = SequenceSteps.advance(this, n);
+    if (advanced.hasNone()) {
+      return limit(0);
+    }
+    if (!(advanced.value() instanceof SequenceBuilder)) {
+      throw new QuickBuilderError("Cannot skip within "
+          + getClass().getName() + " as it steps to a "
+          + advanced.value().getClass().getName());
+    }
+    return (SequenceBuilder<T>) advanced.value();
+  }
+
+  /**
+   * Builds the value at a position in the sequence without building the
+   * values before it.
+   * 
+   * @param index Position of the value relative to this builder
+   * @return The value
+   * @throws NoValueAvailableError if the sequence is not long enough
+   */
+  default T at(final int index) {
+    final Maybe<Builder<T>> advanced = SequenceSteps.advance(this, index);
+    if (advanced.hasNone()) {
+      throw new NoValueAvailableError("No value at index " + index
+          + " of sequence");
+    }
+    return advanced.value().build();
+  }
+
+  /**
+   * Creates a spliterator over the values of this sequence. The spliterator is
+   * sized when the length of the sequence is known.
+   * 
+   * The builders supplied by QuickBuilder override this with a spliterator
+   * that can be split so that values are built in parallel.
+   * 
+   * @return A spliterator over the values of this sequence
+   */
+  @Override
+  default Spliterator<T> spliterator() {
+    final SequenceLength length = length();
+    if (length.isExact()) {
+      return Spliterators.spliterator(iterator(), length.size(),
+          Spliterator.ORDERED);
+    }
+    return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+  }
+
+  /**
+   * Creates a stream of the values of this sequence. The stream is infinite
+   * unless the sequence is limited.
+   * 
+   * @return A sequential stream that may be made parallel
+   */
+  default Stream<T> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Builds each value of the sequence in turn and passes it to the action.
+   * Values are not collected, so a value may be garbage collected as soon as
+   * the action has finished with it.
+   * 
+   * WARNING. This method will not terminate for infinite sequences unless the
+   * action throws.
+   * 
+   * @param action Action to perform on each value
+   */
+  @Override
+  default void forEach(final Consumer<? super T> action) {
+    final Iterator<T> values = iterator();
+    while (values.hasNext()) {
+      action.accept(values.next());
+    }
+  }
+
+  /**
+   * Builds the values of the sequence in batches of the given size, passing
+   * each batch to the action. The final batch may be smaller.
+   * 
+   * The same list is reused for every batch and is cleared once the action
+   * returns, so memory use depends on the batch size rather than the length of
+   * the sequence. Actions must copy the list if they need to keep it.
+   * 
+   * WARNING. This method will not terminate for infinite sequences unless the
+   * action throws.
+   * 
+   * @param size Maximum number of values in each batch
+   * @param action Action to perform on each batch
+   */
+  default void forEachBatch(final int size,
+      final Consumer<? super List<T>> action) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Invalid batch size " + size);
+    }
+    // large batches grow as they are filled rather than being presized
+    final List<T> buffer = new ArrayList<T>(Math.min(size, 1 << 16));
+    final List<T> batch = Collections.unmodifiableList(buffer);
+    final Iterator<T> values = iterator();
+    while (values.hasNext()) {
+      buffer.add(values.next());
+      if (buffer.size() == size) {
+        action.accept(batch);
+        buffer.clear();
+      }
+    }
+    if (!buffer.isEmpty()) {
+      action.accept(batch);
+      buffer.clear();
+    }
+  }
 }
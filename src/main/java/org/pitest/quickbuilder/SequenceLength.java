@@ -0,0 +1,150 @@
+package org.pitest.quickbuilder;
+
+/**
+ * The length of a builder sequence as far as it can be known without building
+ * it. A length is exact, an upper bound, infinite or unknown.
+ */
+public final class SequenceLength {
+
+  private static final SequenceLength INFINITE = new SequenceLength(
+                                                   Kind.INFINITE, 0);
+  private static final SequenceLength UNKNOWN  = new SequenceLength(
+                                                   Kind.UNKNOWN, 0);
+
+  private enum Kind {
+    EXACT, AT_MOST, INFINITE, UNKNOWN
+  }
+
+  private final Kind kind;
+  private final long size;
+
+  private SequenceLength(final Kind kind, final long size) {
+    this.kind = kind;
+    this.size = size;
+  }
+
+  public static SequenceLength exactly(final long size) {
+    return new SequenceLength(Kind.EXACT, size);
+  }
+
+  public static SequenceLength atMost(final long size) {
+    return new SequenceLength(Kind.AT_MOST, size);
+  }
+
+  public static SequenceLength infinite() {
+    return INFINITE;
+  }
+
+  public static SequenceLength unknown() {
+    return UNKNOWN;
+  }
+
+  /**
+   * @return true if the sequence is known to end
+   */
+  public boolean isFinite() {
+    return (this.kind == Kind.EXACT) || (this.kind == Kind.AT_MOST);
+  }
+
+  /**
+   * @return true if the sequence is known never to end
+   */
+  public boolean isInfinite() {
+    return this.kind == Kind.INFINITE;
+  }
+
+  /**
+   * @return true if the exact number of values is known
+   */
+  public boolean isExact() {
+    return this.kind == Kind.EXACT;
+  }
+
+  /**
+   * @return The exact size, or the most values a finite sequence can contain,
+   *         or Long.MAX_VALUE if the sequence is not known to end
+   */
+  public long size() {
+    return isFinite() ? this.size : Long.MAX_VALUE;
+  }
+
+  /**
+   * The length of a sequence that ends when either sequence ends, such as a
+   * limited sequence or a builder drawing on several sequences.
+   * 
+   * @param other The other length
+   * @return The length of the shorter sequence
+   */
+  public SequenceLength min(final SequenceLength other) {
+    if (this.isInfinite()) {
+      return other;
+    }
+    if (other.isInfinite()) {
+      return this;
+    }
+    if (this.isExact() && other.isExact()) {
+      return exactly(Math.min(this.size, other.size));
+    }
+    if (this.isFinite() || other.isFinite()) {
+      return atMost(Math.min(this.size(), other.size()));
+    }
+    return UNKNOWN;
+  }
+
+  /**
+   * The length of one sequence followed by another.
+   * 
+   * @param other The other length
+   * @return The combined length
+   */
+  public SequenceLength plus(final SequenceLength other) {
+    if (this.isInfinite() || other.isInfinite()) {
+      return INFINITE;
+    }
+    if (!this.isFinite() || !other.isFinite()) {
+      return UNKNOWN;
+    }
+    final long total = saturatedAdd(this.size, other.size);
+    if (this.isExact() && other.isExact()) {
+      return exactly(total);
+    }
+    return atMost(total);
+  }
+
+  private static long saturatedAdd(final long a, final long b) {
+    final long sum = a + b;
+    return sum < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 * this.kind.hashCode()) + (int) (this.size ^ (this.size >>> 32));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if ((obj == null) || (getClass() != obj.getClass())) {
+      return false;
+    }
+    final SequenceLength other = (SequenceLength) obj;
+    return (this.kind == other.kind) && (this.size == other.size);
+  }
+
+  @Override
+  public String toString() {
+    switch (this.kind) {
+    case EXACT:
+      return "SequenceLength [" + this.size + "]";
+    case AT_MOST:
+      return "SequenceLength [at most " + this.size + "]";
+    case INFINITE:
+      return "SequenceLength [infinite]";
+    default:
+      return "SequenceLength [unknown]";
+    }
+  }
+
+}
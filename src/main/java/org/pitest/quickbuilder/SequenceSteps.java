@@ -0,0 +1,33 @@
+package org.pitest.quickbuilder;
+
+/**
+ * Moves along sequences for the default methods of SequenceBuilder.
+ */
+final class SequenceSteps {
+
+  private SequenceSteps() {
+  }
+
+  /**
+   * Returns the builder n positions further along the sequence. Random access
+   * builders move there directly, others are stepped through without building
+   * any values.
+   */
+  static <T> Maybe<Builder<T>> advance(final Builder<T> builder, final long n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot advance " + n + " positions");
+    }
+    if (n == 0) {
+      return Maybe.some(builder);
+    }
+    if (builder instanceof RandomAccessBuilder) {
+      return ((RandomAccessBuilder<T>) builder).advance(n);
+    }
+    Maybe<Builder<T>> next = Maybe.some(builder);
+    for (long i = 0; (i != n) && next.hasSome(); i++) {
+      next = next.value().next();
+    }
+    return next;
+  }
+
+}
@@ -1,13 +1,19 @@
 package org.pitest.quickbuilder.builders;
 
+import java.util.List;
+
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.SequenceBuilder;
 import org.pitest.quickbuilder.common.AsString;
 import org.pitest.quickbuilder.common.ComposedBuilder;
 import org.pitest.quickbuilder.common.ConstantBuilder;
 import org.pitest.quickbuilder.common.ConvertingBuilder;
+import org.pitest.quickbuilder.common.DoubleSequence;
+import org.pitest.quickbuilder.common.IntSequence;
 import org.pitest.quickbuilder.common.Integers;
+import org.pitest.quickbuilder.common.LongSequence;
 import org.pitest.quickbuilder.common.NullBuilder;
+import org.pitest.quickbuilder.common.RandomValues;
 import org.pitest.quickbuilder.common.RepeatedBuilder;
 import org.pitest.quickbuilder.common.Sequences;
 
@@ -111,6 +117,237 @@ public class Builders {
   public static SequenceBuilder<Integer> integersFrom(int start) {
     return Integers.integersFrom(start);
   }
+
+  /**
+   * Creates an infinite sequence of ints starting at the given value and
+   * moving by step each time. Values wrap on overflow.
+   * 
+   * @param start First int to build
+   * @param step Difference between consecutive values
+   * @return An infinite sequence of ints
+   */
+  public static IntSequence intsFrom(int start, int step) {
+    return IntSequence.from(start, step);
+  }
+
+  /**
+   * Creates a sequence of the ints from one value up to, but not including,
+   * another.
+   * 
+   * @param from First int to build
+   * @param to Value after the last int
+   * @return A sequence of ints, empty if to is not greater than from
+   */
+  public static IntSequence range(int from, int to) {
+    return IntSequence.range(from, to);
+  }
+
+  /**
+   * Creates a sequence of ints from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down.
+   * 
+   * @param from First int to build
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero
+   * @return A finite sequence of ints
+   */
+  public static IntSequence range(int from, int to, int step) {
+    return IntSequence.range(from, to, step);
+  }
+
+  /**
+   * Creates an infinite sequence of longs starting at the given value and
+   * moving by step each time. Values wrap on overflow.
+   * 
+   * @param start First long to build
+   * @param step Difference between consecutive values
+   * @return An infinite sequence of longs
+   */
+  public static LongSequence longsFrom(long start, long step) {
+    return LongSequence.from(start, step);
+  }
+
+  /**
+   * Creates a sequence of longs from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down.
+   * 
+   * @param from First long to build
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero
+   * @return A sequence of longs
+   */
+  public static LongSequence range(long from, long to, long step) {
+    return LongSequence.range(from, to, step);
+  }
+
+  /**
+   * Creates an infinite sequence of doubles starting at the given value and
+   * moving by step each time.
+   * 
+   * @param start First double to build
+   * @param step Difference between consecutive values
+   * @return An infinite sequence of doubles
+   */
+  public static DoubleSequence doublesFrom(double start, double step) {
+    return DoubleSequence.from(start, step);
+  }
+
+  /**
+   * Creates a sequence of doubles from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down.
+   * 
+   * @param from First double to build
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero
+   * @return A sequence of doubles
+   */
+  public static DoubleSequence range(double from, double to, double step) {
+    return DoubleSequence.range(from, to, step);
+  }
+
+  /**
+   * Creates an infinite sequence of random ints. The same seed always
+   * produces the same sequence, however it is skipped, split or streamed.
+   * 
+   * @param seed Seed for the sequence
+   * @param from Smallest int, inclusive
+   * @param to Largest int, exclusive
+   * @return A sequence of random ints
+   */
+  public static IntSequence randomInts(long seed, int from, int to) {
+    return RandomValues.ints(seed, from, to);
+  }
+
+  /**
+   * Creates an infinite sequence of random longs. The same seed always
+   * produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @return A sequence of random longs
+   */
+  public static LongSequence randomLongs(long seed) {
+    return RandomValues.longs(seed);
+  }
+
+  /**
+   * Creates an infinite sequence of random longs. The same seed always
+   * produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param from Smallest long, inclusive
+   * @param to Largest long, exclusive
+   * @return A sequence of random longs
+   */
+  public static LongSequence randomLongs(long seed, long from, long to) {
+    return RandomValues.longs(seed, from, to);
+  }
+
+  /**
+   * Creates an infinite sequence of random doubles between zero, inclusive,
+   * and one, exclusive. The same seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @return A sequence of random doubles
+   */
+  public static DoubleSequence randomDoubles(long seed) {
+    return RandomValues.doubles(seed);
+  }
+
+  /**
+   * Creates an infinite sequence of random booleans. The same seed always
+   * produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @return A sequence of random booleans
+   */
+  public static SequenceBuilder<Boolean> randomBooleans(long seed) {
+    return RandomValues.booleans(seed);
+  }
+
+  /**
+   * Creates an infinite sequence of random strings. The same seed always
+   * produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param alphabet Characters to build strings from
+   * @param minLength Length of the shortest string
+   * @param maxLength Length of the longest string
+   * @return A sequence of random strings
+   */
+  public static SequenceBuilder<String> randomStrings(long seed,
+      String alphabet, int minLength, int maxLength) {
+    return RandomValues.strings(seed, alphabet, minLength, maxLength);
+  }
+
+  /**
+   * Creates an infinite sequence of values picked at random from a list. The
+   * same seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param values Values to pick from
+   * @param<T> Type to build
+   * @return A sequence of values picked from the list
+   */
+  public static <T> SequenceBuilder<T> randomElements(long seed,
+      List<T> values) {
+    return RandomValues.elements(seed, values);
+  }
+
+  /**
+   * Creates an infinite sequence of values picked at random from a list, each
+   * in proportion to its weight. Each value is picked in constant time. The
+   * same seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param values Values to pick from
+   * @param weights Relative weight of each value
+   * @param<T> Type to build
+   * @return A sequence of values picked from the list
+   */
+  public static <T> SequenceBuilder<T> oneOf(long seed, List<T> values,
+      double... weights) {
+    return RandomValues.oneOf(seed, values, weights);
+  }
+
+  /**
+   * Creates an infinite sequence of Zipf distributed ranks from 1 to n, so
+   * that a few low ranks are built far more often than the rest. Useful for
+   * generating hot keys. The same seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param n Number of ranks
+   * @param exponent Skew of the distribution, typically around 1
+   * @return A sequence of ranks
+   */
+  public static IntSequence randomZipf(long seed, int n, double exponent) {
+    return RandomValues.zipf(seed, n, exponent);
+  }
+
+  /**
+   * Creates an infinite sequence of normally distributed doubles. The same
+   * seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param mean Mean of the values
+   * @param standardDeviation Standard deviation of the values
+   * @return A sequence of random doubles
+   */
+  public static DoubleSequence randomGaussians(long seed, double mean,
+      double standardDeviation) {
+    return RandomValues.gaussians(seed, mean, standardDeviation);
+  }
+
+  /**
+   * Creates an infinite sequence of exponentially distributed doubles. The
+   * same seed always produces the same sequence.
+   * 
+   * @param seed Seed for the sequence
+   * @param mean Mean of the values
+   * @return A sequence of random doubles
+   */
+  public static DoubleSequence randomExponentials(long seed, double mean) {
+    return RandomValues.exponentials(seed, mean);
+  }
   
   /**
    * Converts a builder to return a string representation of it type
@@ -121,7 +358,7 @@ public class Builders {
    * @return A builder that returns string representations of the built value
    */
   public static <T> SequenceBuilder<String> asString(Builder<T> builder) {
-    return new ConvertingBuilder<T,String>(builder, new AsString<T>());
+    return ConvertingBuilder.convert(builder, new AsString<T>());
   }
    
   /**
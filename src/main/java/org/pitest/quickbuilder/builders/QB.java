@@ -1,7 +1,15 @@
 package org.pitest.quickbuilder.builders;
 
+import java.util.Arrays;
+
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.BuilderFactory;
+import org.pitest.quickbuilder.CacheStatistics;
 import org.pitest.quickbuilder.Generator;
+import org.pitest.quickbuilder.PreloadReport;
+import org.pitest.quickbuilder.internal.BuilderFactories;
+import org.pitest.quickbuilder.internal.BuilderInterfaces;
+import org.pitest.quickbuilder.internal.Preloader;
 import org.pitest.quickbuilder.internal.TypeScanner;
 
 /**
@@ -29,9 +37,8 @@ public abstract class QB {
    *          Type of builder interface
    * @return A builder instance
    */
-  @SuppressWarnings("unchecked")
   public static <T, B extends Builder<T>> B builder(final Class<B> builder) {
-    return builder(builder, null);
+    return QB.<T, B> factory(builder).newBuilder();
   }
 
   /**
@@ -48,11 +55,125 @@ public abstract class QB {
    * @param <B> Type of builder interface
    * @return A builder instance
    */
-  @SuppressWarnings("unchecked")
   public static <T, B extends Builder<T>> B builder(final Class<B> builder,
       final Generator<B, T> seed) {
-    final TypeScanner<T, B> ts = new TypeScanner<T, B>(builder, seed);
-    return ts.builder();
+    return QB.<T, B> factory(builder).newBuilder(seed);
+  }
+
+  /**
+   * Returns a factory for builders implementing the supplied interface.
+   * 
+   * All reflective work is performed when the factory is first requested for
+   * an interface, creating builders from the returned factory costs no more
+   * than a constructor call. Factories may be retained and shared between
+   * threads.
+   * 
+   * @param builder Interface to implement
+   * @param <T> Type of class to be built
+   * @param <B> Type of builder interface
+   * @return A builder factory
+   */
+  public static <T, B extends Builder<T>> BuilderFactory<T, B> factory(
+      final Class<B> builder) {
+    return BuilderFactories.factoryFor(builder);
+  }
+
+  /**
+   * Create a mutable Builder implementation for the supplied interface.
+   * 
+   * The with methods of a mutable builder update the builder in place and
+   * return it, rather than returning a modified copy, so chains of calls
+   * allocate nothing. Mutable builders are not thread safe and must not be
+   * shared. Declare a method named copy returning the builder interface to
+   * fork a builder.
+   * 
+   * @param builder Interface to implement
+   * @param <T> Type of class to be built
+   * @param <B> Type of builder interface
+   * @return A mutable builder instance
+   */
+  public static <T, B extends Builder<T>> B mutableBuilder(
+      final Class<B> builder) {
+    return QB.<T, B> mutableFactory(builder).newBuilder();
+  }
+
+  /**
+   * Create a mutable Builder implementation for the supplied interface, using
+   * the supplied seed instance to instantiate the class.
+   * 
+   * @see #mutableBuilder(Class)
+   * @param builder Interface to implement
+   * @param seed Function object that constructs instance of built type
+   * @param <T> Type of class to be built
+   * @param <B> Type of builder interface
+   * @return A mutable builder instance
+   */
+  public static <T, B extends Builder<T>> B mutableBuilder(
+      final Class<B> builder, final Generator<B, T> seed) {
+    return QB.<T, B> mutableFactory(builder).newBuilder(seed);
+  }
+
+  /**
+   * Returns a factory for mutable builders implementing the supplied
+   * interface.
+   * 
+   * @see #mutableBuilder(Class)
+   * @param builder Interface to implement
+   * @param <T> Type of class to be built
+   * @param <B> Type of builder interface
+   * @return A builder factory
+   */
+  public static <T, B extends Builder<T>> BuilderFactory<T, B> mutableFactory(
+      final Class<B> builder) {
+    return BuilderFactories.mutableFactoryFor(builder);
+  }
+
+  /**
+   * Generates the builder classes for the supplied interfaces concurrently,
+   * so that later calls to {@link #builder(Class)} do not pay the cost of
+   * generation. Intended to be called while a test suite starts up.
+   * 
+   * Interfaces that cannot be implemented are reported rather than causing
+   * an error.
+   * 
+   * @param builders Interfaces to implement
+   * @return Generation time for each interface and any failures
+   */
+  public static PreloadReport preload(final Class<?>... builders) {
+    return Preloader.preload(Arrays.asList(builders));
+  }
+
+  /**
+   * Finds the builder interfaces in a package and its sub packages and
+   * preloads them as {@link #preload(Class...)}. Interfaces are found in
+   * directories and jars visible to the context classloader.
+   * 
+   * @param packageName Package to scan eg com.example.builders
+   * @return Generation time for each interface and any failures
+   */
+  public static PreloadReport preloadPackage(final String packageName) {
+    return Preloader.preload(BuilderInterfaces.inPackage(packageName,
+        contextLoader()));
+  }
+
+  private static ClassLoader contextLoader() {
+    final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    if (loader != null) {
+      return loader;
+    }
+    return QB.class.getClassLoader();
+  }
+
+  /**
+   * Returns the hit, miss and invalidation counts of the on disk class cache.
+   * 
+   * The cache is enabled by setting the quickbuilder.cache.dir system property
+   * to a writable directory. When it is not enabled all counts will be zero.
+   * 
+   * @return Current cache counters
+   */
+  public static CacheStatistics cacheStatistics() {
+    return TypeScanner.cacheStatistics();
   }
 
 }
@@ -0,0 +1,89 @@
+package org.pitest.quickbuilder.common;
+
+/**
+ * Samples indexes in proportion to a set of weights in constant time, using
+ * Vose's alias method.
+ *
+ * The table is built once, each sample then costs two random longs, one
+ * picking a column and the other tossing its biased coin, however many
+ * weights there are.
+ */
+final class AliasTable {
+
+  private final double[] probability;
+  private final int[]    alias;
+
+  AliasTable(final double[] weights) {
+    final int n = weights.length;
+    if (n == 0) {
+      throw new IllegalArgumentException("No weights supplied");
+    }
+    final double total = total(weights);
+    this.probability = new double[n];
+    this.alias = new int[n];
+
+    final double[] scaled = new double[n];
+    final int[] small = new int[n];
+    final int[] large = new int[n];
+    int smalls = 0;
+    int larges = 0;
+    for (int i = 0; i != n; i++) {
+      scaled[i] = (weights[i] * n) / total;
+      if (scaled[i] < 1) {
+        small[smalls++] = i;
+      } else {
+        large[larges++] = i;
+      }
+    }
+
+    while ((smalls != 0) && (larges != 0)) {
+      final int less = small[--smalls];
+      final int more = large[--larges];
+      this.probability[less] = scaled[less];
+      this.alias[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1;
+      if (scaled[more] < 1) {
+        small[smalls++] = more;
+      } else {
+        large[larges++] = more;
+      }
+    }
+
+    // anything left over is only short of one through rounding
+    while (larges != 0) {
+      this.probability[large[--larges]] = 1;
+    }
+    while (smalls != 0) {
+      this.probability[small[--smalls]] = 1;
+    }
+  }
+
+  private static double total(final double[] weights) {
+    double total = 0;
+    for (final double each : weights) {
+      if (!(each >= 0) || Double.isInfinite(each)) {
+        throw new IllegalArgumentException("Invalid weight " + each);
+      }
+      total += each;
+    }
+    if (!(total > 0) || Double.isInfinite(total)) {
+      throw new IllegalArgumentException(
+          "Weights must have a finite, positive total");
+    }
+    return total;
+  }
+
+  /**
+   * @param column Uniformly distributed bits choosing the column
+   * @param coin Uniformly distributed bits deciding between the column and
+   *          its alias
+   * @return The sampled index
+   */
+  int sample(final long column, final long coin) {
+    // the modulo bias for a table of up to 2^31 entries is at most 2^-32
+    final int i = (int) ((column >>> 1) % this.probability.length);
+    return RandomValues.unitDouble(coin) < this.probability[i] ? i
+        : this.alias[i];
+  }
+
+}
@@ -4,37 +4,49 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import org.pitest.quickbuilder.Builder;
-import org.pitest.quickbuilder.NoValueAvailableError;
-
+import org.pitest.quickbuilder.Maybe;
+
+/**
+ * Iterates over the values of a builder sequence.
+ * 
+ * Each value is built once, by next. The end of the sequence is found from
+ * its length and from the builder's next method rather than by building, so
+ * an error building a value reaches the caller instead of ending iteration.
+ * 
+ * @param <T> Type to build
+ */
 public class BuilderIterator<T> implements Iterator<T> {
 
-  private static final Builder<?> FIN = new NonBuilder<Object>();
-
-  private Builder<T>              builder;
+  private Builder<T> builder;
 
   BuilderIterator(final Builder<T> builder) {
-    this.builder = builder;
+    this.builder = Sequences.isEmpty(builder) ? null : builder;
   }
 
   public static <T> Iterator<T> iterator(Builder<T> builder) {
+    if (builder instanceof ElementSequence) {
+      return ((ElementSequence<T>) builder).values();
+    }
+    if (builder instanceof RepeatedBuilder) {
+      return ((RepeatedBuilder<T>) builder).values();
+    }
     return new BuilderIterator<T>(builder);
   }
   
   @Override
   public boolean hasNext() {
-    return this.builder.next().hasSome();
+    return this.builder != null;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public T next() {
-    try {
-      final T value = this.builder.build();
-      this.builder = this.builder.next().getOrElse((Builder<T>) FIN);
-      return value;
-    } catch (final NoValueAvailableError ex) {
+    if (!hasNext()) {
       throw new NoSuchElementException();
     }
+    final T next = this.builder.build();
+    final Maybe<Builder<T>> successor = this.builder.next();
+    this.builder = successor.hasSome() ? successor.value() : null;
+    return next;
   }
 
   @Override
@@ -0,0 +1,100 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.SequenceLength;
+
+/**
+ * Spliterator over the values of a builder sequence.
+ * 
+ * Splitting hands the first part of the sequence to a new spliterator and
+ * advances this one past it without building any values, so both parts can
+ * be built in parallel.
+ * 
+ * @param <T> Type to build
+ */
+class BuilderSpliterator<T> implements Spliterator<T> {
+
+  private static final int BATCH_UNIT = 1 << 10;
+  private static final int MAX_BATCH  = 1 << 25;
+
+  private Builder<T>       builder;
+  private long             remaining;
+  private final boolean    sized;
+  private int              batch;
+
+  BuilderSpliterator(final Builder<T> builder, final long remaining,
+      final boolean sized) {
+    this.builder = builder;
+    this.remaining = remaining;
+    this.sized = sized;
+  }
+
+  static <T> Spliterator<T> spliterator(final Builder<T> builder) {
+    final SequenceLength length = Sequences.length(builder);
+    return new BuilderSpliterator<T>(builder, length.size(), length.isExact());
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super T> action) {
+    if ((this.builder == null) || (this.remaining == 0)) {
+      return false;
+    }
+    // the length and next decide where the sequence ends, so build errors
+    // are not mistaken for its end
+    final T value = this.builder.build();
+    final Maybe<Builder<T>> next = this.builder.next();
+    this.builder = next.hasSome() ? next.value() : null;
+    if (this.remaining != Long.MAX_VALUE) {
+      this.remaining--;
+    }
+    action.accept(value);
+    return true;
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    if ((this.builder == null) || (this.remaining < 2)) {
+      return null;
+    }
+    final long n = splitSize();
+    final Maybe<Builder<T>> rest = Sequences.advance(this.builder, n);
+    if (rest.hasNone()) {
+      // the whole sequence lies within the first n values
+      this.remaining = n;
+      return trySplit();
+    }
+    final Spliterator<T> prefix = new BuilderSpliterator<T>(this.builder, n,
+        this.sized);
+    this.builder = rest.value();
+    if (this.remaining != Long.MAX_VALUE) {
+      this.remaining = this.remaining - n;
+    }
+    return prefix;
+  }
+
+  private long splitSize() {
+    if (this.remaining != Long.MAX_VALUE) {
+      return this.remaining / 2;
+    }
+    this.batch = Math.min(this.batch + BATCH_UNIT, MAX_BATCH);
+    return this.batch;
+  }
+
+  @Override
+  public long estimateSize() {
+    return this.builder == null ? 0 : this.remaining;
+  }
+
+  @Override
+  public int characteristics() {
+    if (this.sized) {
+      return ORDERED | IMMUTABLE | SIZED | SUBSIZED;
+    }
+    return ORDERED | IMMUTABLE;
+  }
+
+}
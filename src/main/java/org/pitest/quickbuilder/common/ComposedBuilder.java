@@ -3,54 +3,194 @@ package org.pitest.quickbuilder.common;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-public class ComposedBuilder<T> implements SequenceBuilder<T> {
-  
-  private final List<Builder<T>> children;
-  
-  private ComposedBuilder(List<Builder<T>> children) {
+/**
+ * Builds the values of each child in turn.
+ * 
+ * All positions in the sequence share one array of children and hold only an
+ * index into it and the current state of the child at that index. Nested
+ * compositions are flattened when composed.
+ * 
+ * The offset of each child is computed once, up to the first child whose
+ * length is not exactly known, so advancing through the sequence finds the target child
+ * with a binary search.
+ * 
+ * @param <T> Type to build
+ */
+public class ComposedBuilder<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
+
+  private final Builder<T>[] children;
+  private final long[]       offsets;
+  private final int          known;
+  private final int          index;
+  private final Builder<T>   current;
+
+  private ComposedBuilder(final Builder<T>[] children, final long[] offsets,
+      final int known, final int index, final Builder<T> current) {
     this.children = children;
+    this.offsets = offsets;
+    this.known = known;
+    this.index = index;
+    this.current = current;
   }
 
   public static <T> SequenceBuilder<T> compose(Builder<T> ... children ) {
-    return make(Arrays.asList(children));
+    final List<Builder<T>> flattened = new ArrayList<Builder<T>>(
+        children.length);
+    for (final Builder<T> each : children) {
+      if (each instanceof ComposedBuilder) {
+        ((ComposedBuilder<T>) each).addRemainingTo(flattened);
+      } else {
+        flattened.add(each);
+      }
+    }
+    return make(flattened);
   } 
   
+  @SuppressWarnings("unchecked")
   private static <T> SequenceBuilder<T> make(List<Builder<T>> children) {
     if (children.isEmpty() ) {
       return new NonBuilder<T>();
     }
-    return new ComposedBuilder<T>(children);
+    final Builder<T>[] cs = children
+        .toArray((Builder<T>[]) new Builder<?>[children.size()]);
+    final long[] offsets = new long[cs.length + 1];
+    int known = 0;
+    while (known != cs.length) {
+      final SequenceLength length = Sequences.length(cs[known]);
+      if (!length.isExact()) {
+        break;
+      }
+      offsets[known + 1] = offsets[known] + positions(length.size());
+      known++;
+    }
+    return new ComposedBuilder<T>(cs, offsets, known, 0, cs[0]);
+  }
+
+  private ComposedBuilder<T> positionedAt(final int child,
+      final Builder<T> state) {
+    return new ComposedBuilder<T>(this.children, this.offsets, this.known,
+        child, state);
+  }
+
+  // an empty child still occupies one position in the sequence
+  private static long positions(final long length) {
+    return Math.max(length, 1);
+  }
+
+  private void addRemainingTo(final List<Builder<T>> list) {
+    list.add(this.current);
+    for (int i = this.index + 1; i < this.children.length; i++) {
+      list.add(this.children[i]);
+    }
   }
   
   @Override
   public T build() {
-    return children.get(0).build();
+    return this.current.build();
   }
 
 
   @Override
   public Maybe<Builder<T>> next() {
-    Maybe<Builder<T>> nextInSequence = children.get(0).next();
+    final Maybe<Builder<T>> nextInSequence = this.current.next();
     if (nextInSequence.hasSome()) {
-      List<Builder<T>> next = new ArrayList<Builder<T>>(children);
-      next.set(0, nextInSequence.value());
-      return Maybe.<Builder<T>> some(make(next));
+      return Maybe.<Builder<T>> some(positionedAt(this.index,
+          nextInSequence.value()));
     }
 
-    LinkedList<Builder<T>> next = new LinkedList<Builder<T>>(children);
-    next.removeFirst();
-    if (next.isEmpty()) {
+    final int nextChild = this.index + 1;
+    if (nextChild == this.children.length) {
       return Maybe.none();
     }
-    return Maybe.<Builder<T>> some(make(next));
+    return Maybe.<Builder<T>> some(positionedAt(nextChild,
+        this.children[nextChild]));
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    final SequenceLength length = Sequences.length(this.current);
+    if (!length.isExact() || (this.index >= this.known)) {
+      return walk(this.index, this.current, n);
+    }
+
+    final long target = (this.offsets[this.index + 1] - positions(length
+        .size())) + n;
+    if (target >= this.offsets[this.known]) {
+      if (this.known == this.children.length) {
+        return Maybe.none();
+      }
+      return walk(this.known, this.children[this.known], target
+          - this.offsets[this.known]);
+    }
 
+    final int found = Arrays.binarySearch(this.offsets, 0, this.known + 1,
+        target);
+    final int child = found >= 0 ? found : -found - 2;
+    if (child == this.index) {
+      return Maybe.<Builder<T>> some(positionedAt(child,
+          Sequences.advance(this.current, n).value()));
+    }
+    return Maybe.<Builder<T>> some(positionedAt(child,
+        Sequences.advance(this.children[child], target - this.offsets[child])
+            .value()));
+  }
+
+  private Maybe<Builder<T>> walk(final int from, final Builder<T> state,
+      final long n) {
+    long left = n;
+    int i = from;
+    Builder<T> head = state;
+    while (true) {
+      final SequenceLength length = Sequences.length(head);
+      if (length.isExact()) {
+        if (left < length.size()) {
+          return Maybe.<Builder<T>> some(positionedAt(i,
+              Sequences.advance(head, left).value()));
+        }
+        left = left - positions(length.size());
+      } else {
+        Builder<T> b = head;
+        while (left != 0) {
+          final Maybe<Builder<T>> next = b.next();
+          if (next.hasNone()) {
+            break;
+          }
+          b = next.value();
+          left--;
+        }
+        if (left == 0) {
+          return Maybe.<Builder<T>> some(positionedAt(i, b));
+        }
+        left--;
+      }
+      i++;
+      if (i == this.children.length) {
+        return Maybe.none();
+      }
+      head = this.children[i];
+      if (left == 0) {
+        return Maybe.<Builder<T>> some(positionedAt(i, head));
+      }
+    }
+  }
+
+  @Override
+  public SequenceLength length() {
+    SequenceLength total = Sequences.length(this.current);
+    for (int i = this.index + 1; i < this.children.length; i++) {
+      total = total.plus(Sequences.length(this.children[i]));
+    }
+    return total;
   }
   
   @Override
@@ -74,4 +214,19 @@ public class ComposedBuilder<T> implements SequenceBuilder<T> {
     return Sequences.iterator(this);
   }
 
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
+
 }
@@ -2,13 +2,14 @@ package org.pitest.quickbuilder.common;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 
 /**
  * Builds a constant value
  *
  * @param <T> Type to build
  */
-public class ConstantBuilder<T> implements Builder<T> {
+public class ConstantBuilder<T> implements RandomAccessBuilder<T> {
 
   private final T value;
 
@@ -30,4 +31,9 @@ public class ConstantBuilder<T> implements Builder<T> {
     return Maybe.<Builder<T>> some(this);
   }
 
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    return Maybe.<Builder<T>> some(this);
+  }
+
 }
@@ -0,0 +1,56 @@
+package org.pitest.quickbuilder.common;
+
+import org.pitest.quickbuilder.Conversion;
+
+/**
+ * Applies a series of conversions in turn. Chains are flattened when they are
+ * extended, so each value passes through a single loop however many
+ * conversions were applied to a sequence.
+ *
+ * @param <A> Type to convert from
+ * @param <T> Type to convert to
+ */
+final class ConversionChain<A, T> implements Conversion<A, T> {
+
+  private final Conversion<Object, Object>[] steps;
+
+  private ConversionChain(final Conversion<Object, Object>[] steps) {
+    this.steps = steps;
+  }
+
+  static <A, B, T> Conversion<A, T> of(final Conversion<A, B> first,
+      final Conversion<B, T> second) {
+    final Conversion<Object, Object>[] a = stepsOf(first);
+    final Conversion<Object, Object>[] b = stepsOf(second);
+    final Conversion<Object, Object>[] steps = newSteps(a.length + b.length);
+    System.arraycopy(a, 0, steps, 0, a.length);
+    System.arraycopy(b, 0, steps, a.length, b.length);
+    return new ConversionChain<A, T>(steps);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Conversion<Object, Object>[] stepsOf(final Conversion<?, ?> c) {
+    if (c instanceof ConversionChain) {
+      return ((ConversionChain<?, ?>) c).steps;
+    }
+    final Conversion<Object, Object>[] steps = newSteps(1);
+    steps[0] = (Conversion<Object, Object>) c;
+    return steps;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Conversion<Object, Object>[] newSteps(final int n) {
+    return (Conversion<Object, Object>[]) new Conversion<?, ?>[n];
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T convert(final A a) {
+    Object value = a;
+    for (final Conversion<Object, Object> each : this.steps) {
+      value = each.convert(value);
+    }
+    return (T) value;
+  }
+
+}
@@ -2,13 +2,17 @@ package org.pitest.quickbuilder.common;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Conversion;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-public class ConvertingBuilder<A,T> implements SequenceBuilder<T> {
+public class ConvertingBuilder<A,T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
   
   private final Builder<A> child;
   private final Conversion<A,T> converter;
@@ -18,6 +22,42 @@ public class ConvertingBuilder<A,T> implements SequenceBuilder<T> {
     this.converter = converter;
   }
 
+  /**
+   * Converts the values of a sequence. Conversions of converted sequences
+   * are combined into a single builder.
+   * 
+   * @param child The sequence to convert
+   * @param converter The conversion to apply
+   * @param <A> Type of the sequence
+   * @param <T> Type to convert to
+   * @return A builder of converted values
+   */
+  public static <A, T> SequenceBuilder<T> convert(final Builder<A> child,
+      final Conversion<A, T> converter) {
+    final Builder<A> c = Sequences.unwrap(child);
+    if (c instanceof ConvertingBuilder) {
+      return ((ConvertingBuilder<?, A>) c).andThen(converter);
+    }
+    if (c instanceof NonBuilder) {
+      return new NonBuilder<T>();
+    }
+    return new ConvertingBuilder<A, T>(c, converter);
+  }
+
+  private <U> SequenceBuilder<U> andThen(final Conversion<T, U> next) {
+    return new ConvertingBuilder<A, U>(this.child, ConversionChain.of(
+        this.converter, next));
+  }
+
+  /**
+   * Limits the converted sequence, so limits applied after a conversion can
+   * be folded into the sequence being converted.
+   */
+  SequenceBuilder<T> limitedTo(final int times) {
+    return new ConvertingBuilder<A, T>(LimitingBuilder.limit(times,
+        this.child), this.converter);
+  }
+
   @Override
   public T build() {
     return converter.convert(child.build());
@@ -25,10 +65,26 @@ public class ConvertingBuilder<A,T> implements SequenceBuilder<T> {
 
   @Override
   public Maybe<Builder<T>> next() {
-    if (child.next().hasNone()) {
+    final Maybe<Builder<A>> next = child.next();
+    if (next.hasNone()) {
       return Maybe.none();
     }
-    return Maybe.<Builder<T>>some(new ConvertingBuilder<A,T>(child.next().value(),converter));
+    return Maybe.<Builder<T>>some(new ConvertingBuilder<A,T>(next.value(),converter));
+  }
+
+  @Override
+  public SequenceLength length() {
+    return Sequences.length(this.child);
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    final Maybe<Builder<A>> advanced = Sequences.advance(this.child, n);
+    if (advanced.hasNone()) {
+      return Maybe.none();
+    }
+    return Maybe.<Builder<T>> some(new ConvertingBuilder<A, T>(
+        advanced.value(), this.converter));
   }
 
   @Override
@@ -51,4 +107,19 @@ public class ConvertingBuilder<A,T> implements SequenceBuilder<T> {
     return Sequences.iterator(this);
   }  
 
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
+
 }
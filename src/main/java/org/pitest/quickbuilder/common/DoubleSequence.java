@@ -0,0 +1,137 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.pitest.quickbuilder.DoubleBuilder;
+
+/**
+ * A sequence of doubles computed from their position, such as an arithmetic
+ * range. Values can be built into arrays and mapped to other primitive
+ * sequences without being boxed.
+ */
+public final class DoubleSequence extends
+    PrimitiveSequence<Double, DoubleSequence> implements DoubleBuilder {
+
+  private final LongToDoubleFunction values;
+
+  DoubleSequence(final LongToDoubleFunction values, final long position,
+      final long end) {
+    super(position, end);
+    this.values = values;
+  }
+
+  /**
+   * Creates an infinite sequence starting at the given value and moving by
+   * step each time.
+   *
+   * @param start First value
+   * @param step Difference between consecutive values
+   * @return An infinite sequence
+   */
+  public static DoubleSequence from(final double start, final double step) {
+    return new DoubleSequence(progression(start, step), 0, UNBOUNDED);
+  }
+
+  /**
+   * Creates a sequence of values from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down.
+   *
+   * Each value is computed as from + index * step, so rounding errors do not
+   * accumulate along the sequence.
+   *
+   * @param from First value
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero or NaN
+   * @return A sequence, empty if from does not lie before to
+   */
+  public static DoubleSequence range(final double from, final double to,
+      final double step) {
+    return new DoubleSequence(progression(from, step), 0, rangeSize(from, to,
+        step));
+  }
+
+  private static LongToDoubleFunction progression(final double start,
+      final double step) {
+    return new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return start + (index * step);
+      }
+    };
+  }
+
+  @Override
+  DoubleSequence slice(final long position, final long end) {
+    return new DoubleSequence(this.values, position, end);
+  }
+
+  @Override
+  public double buildDouble() {
+    return this.values.applyAsDouble(current());
+  }
+
+  @Override
+  public Double build() {
+    return buildDouble();
+  }
+
+  /**
+   * @param n Maximum number of values to build
+   * @return The first n values, or all values if there are fewer than n
+   */
+  public double[] buildDoubles(final int n) {
+    final double[] doubles = new double[count(n)];
+    for (int i = 0; i != doubles.length; i++) {
+      doubles[i] = this.values.applyAsDouble(this.position + i);
+    }
+    return doubles;
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public DoubleSequence map(final DoubleUnaryOperator f) {
+    final LongToDoubleFunction source = this.values;
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return f.applyAsDouble(source.applyAsDouble(index));
+      }
+    }, this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public IntSequence mapToInt(final DoubleToIntFunction f) {
+    final LongToDoubleFunction source = this.values;
+    return new IntSequence(new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        return f.applyAsInt(source.applyAsDouble(index));
+      }
+    }, this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public LongSequence mapToLong(final DoubleToLongFunction f) {
+    final LongToDoubleFunction source = this.values;
+    return new LongSequence(new LongUnaryOperator() {
+      @Override
+      public long applyAsLong(final long index) {
+        return f.applyAsLong(source.applyAsDouble(index));
+      }
+    }, this.position, this.end);
+  }
+
+}
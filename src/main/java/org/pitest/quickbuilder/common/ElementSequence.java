@@ -1,55 +1,122 @@
 package org.pitest.quickbuilder.common;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
 import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
 /**
  * Generates a builder that iterates through the supplied values.
  * 
+ * The values are copied once into an array shared by every position in the
+ * sequence, so stepping through or limiting the sequence does not copy them
+ * again.
+ * 
  * @param <T> Type to build
  */
-public final class ElementSequence<T> implements SequenceBuilder<T> {
+public final class ElementSequence<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
 
-  private final List<T> ts;
-  private final int     position;
+  private final Object[] ts;
+  private final int      position;
+  private final int      end;
 
-  private ElementSequence(final List<T> ts, final int position) {
-    this.ts = new ArrayList<T>(ts);
+  private ElementSequence(final Object[] ts, final int position,
+      final int end) {
+    this.ts = ts;
     this.position = position;
+    this.end = end;
   }
 
   public static <T> ElementSequence<T> from(final Iterable<T> ts) {
-    return new ElementSequence<T>(asList(ts), 0);
+    final Object[] values = asArray(ts);
+    return new ElementSequence<T>(values, 0, values.length);
   }
 
   @Override
   public T build() {
-    if (this.position == this.ts.size()) {
+    if (this.position == this.end) {
       throw new NoValueAvailableError(
           "Requested a value from sequence, but no values available");
     }
-    return this.ts.get(this.position);
+    return element(this.position);
   }
 
   private boolean hasNext() {
-    return (this.position + 1) < this.ts.size();
+    return (this.position + 1) < this.end;
   }
 
   @Override
   public Maybe<Builder<T>> next() {
     if (hasNext()) {
       return Maybe.<Builder<T>> some(new ElementSequence<T>(this.ts,
-          this.position + 1));
+          this.position + 1, this.end));
     }
     return Maybe.none();
   }
 
+  /**
+   * @return Number of values remaining in the sequence, including the value
+   *         built by this builder
+   */
+  public int size() {
+    return this.end - this.position;
+  }
+
+  /**
+   * Returns the sequence starting n values on from this one. Skipping past the
+   * end returns an empty sequence.
+   * 
+   * @param n Number of values to skip
+   * @return A sequence sharing the values of this one
+   */
+  @Override
+  public ElementSequence<T> skip(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot skip " + n + " values");
+    }
+    return new ElementSequence<T>(this.ts, this.position
+        + Math.min(n, size()), this.end);
+  }
+
+  /**
+   * @param n Maximum number of values
+   * @return The first n values of this sequence, sharing its values
+   */
+  ElementSequence<T> first(final int n) {
+    return new ElementSequence<T>(this.ts, this.position, this.position
+        + Math.min(n, size()));
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    if (n >= size()) {
+      return Maybe.none();
+    }
+    return Maybe.<Builder<T>> some(skip((int) n));
+  }
+
+  /**
+   * @param i Index relative to the start of this sequence
+   * @return The value at the index
+   */
+  public T get(final int i) {
+    if ((i < 0) || (i >= size())) {
+      throw new IndexOutOfBoundsException("Index " + i + " of sequence of size "
+          + size());
+    }
+    return element(this.position + i);
+  }
+
   @Override
   public List<T> build(int number) {
     return Sequences.build(this, number);
@@ -69,13 +136,64 @@ public final class ElementSequence<T> implements SequenceBuilder<T> {
   public Iterator<T> iterator() {
     return Sequences.iterator(this);
   }  
- 
-  private static <T> List<T> asList(final Iterable<T> ts) {
-    final List<T> l = new ArrayList<T>(10);
-    for (final T each : ts) {
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceLength length() {
+    return SequenceLength.exactly(size());
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
+
+  /**
+   * Iterates over the remaining values without creating a builder for each
+   * position.
+   */
+  Iterator<T> values() {
+    return new Iterator<T>() {
+      private int index = ElementSequence.this.position;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < ElementSequence.this.end;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return element(this.index++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private T element(final int index) {
+    return (T) this.ts[index];
+  }
+
+  private static Object[] asArray(final Iterable<?> ts) {
+    if (ts instanceof Collection) {
+      return ((Collection<?>) ts).toArray();
+    }
+    final List<Object> l = new ArrayList<Object>(10);
+    for (final Object each : ts) {
       l.add(each);
     }
-    return l;
+    return l.toArray();
   }
   
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.function.LongFunction;
+
+/**
+ * A sequence of objects computed from their position.
+ *
+ * @param <T> Type to build
+ */
+final class IndexedSequence<T> extends
+    PrimitiveSequence<T, IndexedSequence<T>> {
+
+  private final LongFunction<T> values;
+
+  IndexedSequence(final LongFunction<T> values, final long position,
+      final long end) {
+    super(position, end);
+    this.values = values;
+  }
+
+  @Override
+  IndexedSequence<T> slice(final long position, final long end) {
+    return new IndexedSequence<T>(this.values, position, end);
+  }
+
+  @Override
+  public T build() {
+    return this.values.apply(current());
+  }
+
+}
@@ -0,0 +1,144 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.pitest.quickbuilder.IntBuilder;
+
+/**
+ * A sequence of ints computed from their position, such as an arithmetic
+ * range. Values can be built into arrays and mapped to other primitive
+ * sequences without being boxed.
+ */
+public final class IntSequence extends PrimitiveSequence<Integer, IntSequence>
+    implements IntBuilder {
+
+  private final LongToIntFunction values;
+
+  IntSequence(final LongToIntFunction values, final long position,
+      final long end) {
+    super(position, end);
+    this.values = values;
+  }
+
+  /**
+   * Creates an infinite sequence starting at the given value and moving by
+   * step each time. Values wrap on overflow.
+   *
+   * @param start First value
+   * @param step Difference between consecutive values
+   * @return An infinite sequence
+   */
+  public static IntSequence from(final int start, final int step) {
+    return new IntSequence(progression(start, step), 0, UNBOUNDED);
+  }
+
+  /**
+   * Creates a sequence of the values from one value up to, but not including,
+   * another.
+   *
+   * @param from First value
+   * @param to Value after the last value
+   * @return A sequence of to - from values, or an empty sequence
+   */
+  public static IntSequence range(final int from, final int to) {
+    return range(from, to, 1);
+  }
+
+  /**
+   * Creates a sequence of values from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down.
+   *
+   * @param from First value
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero
+   * @return A finite sequence, empty if from does not lie before to
+   */
+  public static IntSequence range(final int from, final int to, final int step) {
+    return new IntSequence(progression(from, step), 0, rangeSize(from, to,
+        step));
+  }
+
+  private static LongToIntFunction progression(final int start, final int step) {
+    return new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        return (int) (start + (index * step));
+      }
+    };
+  }
+
+  @Override
+  IntSequence slice(final long position, final long end) {
+    return new IntSequence(this.values, position, end);
+  }
+
+  @Override
+  public int buildInt() {
+    return this.values.applyAsInt(current());
+  }
+
+  @Override
+  public Integer build() {
+    return buildInt();
+  }
+
+  /**
+   * @param n Maximum number of values to build
+   * @return The first n values, or all values if there are fewer than n
+   */
+  public int[] buildInts(final int n) {
+    final int[] ints = new int[count(n)];
+    for (int i = 0; i != ints.length; i++) {
+      ints[i] = this.values.applyAsInt(this.position + i);
+    }
+    return ints;
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public IntSequence map(final IntUnaryOperator f) {
+    final LongToIntFunction source = this.values;
+    return new IntSequence(new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        return f.applyAsInt(source.applyAsInt(index));
+      }
+    }, this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public LongSequence mapToLong(final IntToLongFunction f) {
+    final LongToIntFunction source = this.values;
+    return new LongSequence(new LongUnaryOperator() {
+      @Override
+      public long applyAsLong(final long index) {
+        return f.applyAsLong(source.applyAsInt(index));
+      }
+    }, this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public DoubleSequence mapToDouble(final IntToDoubleFunction f) {
+    final LongToIntFunction source = this.values;
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return f.applyAsDouble(source.applyAsInt(index));
+      }
+    }, this.position, this.end);
+  }
+
+}
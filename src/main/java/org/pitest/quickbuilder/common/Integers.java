@@ -2,13 +2,17 @@ package org.pitest.quickbuilder.common;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.IntBuilder;
 import org.pitest.quickbuilder.Maybe;
-import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-public class Integers implements SequenceBuilder<Integer> {
+public class Integers implements SequenceBuilder<Integer>,
+    RandomAccessBuilder<Integer>, IntBuilder {
   
   private final int current;
   
@@ -25,11 +29,21 @@ public class Integers implements SequenceBuilder<Integer> {
     return current;
   }
 
+  @Override
+  public int buildInt() {
+    return this.current;
+  }
+
   @Override
   public Maybe<Builder<Integer>> next() {
     return Maybe.<Builder<Integer>>some(new Integers(current + 1));
   }
 
+  @Override
+  public Maybe<Builder<Integer>> advance(final long n) {
+    return Maybe.<Builder<Integer>> some(new Integers((int) (this.current + n)));
+  }
+
   @Override
   public List<Integer> build(int number) {
     return Sequences.build(this, number);
@@ -37,7 +51,7 @@ public class Integers implements SequenceBuilder<Integer> {
 
   @Override
   public List<Integer> buildAll() {
-    throw new QuickBuilderError("buildAll called on an infinite sequence of Integers. You did not want to do this.");
+    return Sequences.buildAll(this);
   }
 
   @Override
@@ -50,4 +64,24 @@ public class Integers implements SequenceBuilder<Integer> {
     return Sequences.iterator(this);
   }  
 
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceLength length() {
+    return SequenceLength.infinite();
+  }
+
+  @Override
+  public SequenceBuilder<Integer> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public Integer at(int index) {
+    return Sequences.at(this, index);
+  }
+
 }
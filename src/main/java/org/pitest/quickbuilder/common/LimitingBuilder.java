@@ -2,12 +2,16 @@ package org.pitest.quickbuilder.common;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-public class LimitingBuilder<T> implements SequenceBuilder<T> {
+public class LimitingBuilder<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
 
   private final Builder<T> child;
   private final int        remaining;
@@ -17,17 +21,69 @@ public class LimitingBuilder<T> implements SequenceBuilder<T> {
     this.child = child;
   }
 
+  /**
+   * Limits a sequence. Limits of sequences that have a length of their own
+   * are folded into those sequences rather than wrapping them.
+   * 
+   * @param times Maximum length of the sequence
+   * @param child The sequence to limit
+   * @param <T> Type to build
+   * @return A builder sequence of at most times length
+   */
   public static <T> SequenceBuilder<T> limit(int times, Builder<T> child) {
     if ( times <= 0 ) {
       return new NonBuilder<T>();
     }
-    return new LimitingBuilder<T>(times, child);
+    final Builder<T> c = Sequences.unwrap(child);
+    if (c instanceof LimitingBuilder) {
+      final LimitingBuilder<T> limited = (LimitingBuilder<T>) c;
+      return new LimitingBuilder<T>(Math.min(times, limited.size()),
+          limited.child);
+    }
+    if (c instanceof ElementSequence) {
+      return ((ElementSequence<T>) c).first(times);
+    }
+    if (c instanceof RepeatedBuilder) {
+      return ((RepeatedBuilder<T>) c).first(times);
+    }
+    if (c instanceof ConvertingBuilder) {
+      return ((ConvertingBuilder<?, T>) c).limitedTo(times);
+    }
+    if ((c instanceof ConstantBuilder) || (c instanceof NullBuilder)) {
+      return RepeatedBuilder.repeat(times, c);
+    }
+    if (c instanceof NonBuilder) {
+      return (NonBuilder<T>) c;
+    }
+    return new LimitingBuilder<T>(times, c);
   }
 
   public T build() {
     return child.build();
   }
 
+  private int size() {
+    return this.remaining + 1;
+  }
+
+  Builder<T> child() {
+    return this.child;
+  }
+
+  @Override
+  public SequenceLength length() {
+    return SequenceLength.exactly(size()).min(Sequences.length(this.child));
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    if (n >= size()) {
+      return Maybe.none();
+    }
+    return Maybe.<Builder<T>> some(new LimitingBuilder<T>((int) (size() - n),
+        Sequences.advance(this.child, n).getOrElse(new NonBuilder<T>())));
+  }
+
   @Override
   public Maybe<Builder<T>> next() {
     if (remaining > 0) {
@@ -56,4 +112,19 @@ public class LimitingBuilder<T> implements SequenceBuilder<T> {
   public Iterator<T> iterator() {
     return Sequences.iterator(this);
   }  
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
 }
@@ -0,0 +1,127 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.pitest.quickbuilder.LongBuilder;
+
+/**
+ * A sequence of longs computed from their position, such as an arithmetic
+ * range. Values can be built into arrays and mapped to other primitive
+ * sequences without being boxed.
+ */
+public final class LongSequence extends PrimitiveSequence<Long, LongSequence>
+    implements LongBuilder {
+
+  private final LongUnaryOperator values;
+
+  LongSequence(final LongUnaryOperator values, final long position,
+      final long end) {
+    super(position, end);
+    this.values = values;
+  }
+
+  /**
+   * Creates an infinite sequence starting at the given value and moving by
+   * step each time. Values wrap on overflow.
+   *
+   * @param start First value
+   * @param step Difference between consecutive values
+   * @return An infinite sequence
+   */
+  public static LongSequence from(final long start, final long step) {
+    return new LongSequence(progression(start, step), 0, UNBOUNDED);
+  }
+
+  /**
+   * Creates a sequence of values from one value towards, but not including,
+   * another, moving by step each time. Negative steps count down. Any two
+   * longs may be used as bounds, ranges of Long.MAX_VALUE or more values are
+   * treated as infinite.
+   *
+   * @param from First value
+   * @param to Bound that is not reached
+   * @param step Difference between consecutive values, not zero
+   * @return A sequence, empty if from does not lie before to
+   */
+  public static LongSequence range(final long from, final long to,
+      final long step) {
+    return new LongSequence(progression(from, step), 0, rangeSize(from, to,
+        step));
+  }
+
+  private static LongUnaryOperator progression(final long start,
+      final long step) {
+    return new LongUnaryOperator() {
+      @Override
+      public long applyAsLong(final long index) {
+        return start + (index * step);
+      }
+    };
+  }
+
+  @Override
+  LongSequence slice(final long position, final long end) {
+    return new LongSequence(this.values, position, end);
+  }
+
+  @Override
+  public long buildLong() {
+    return this.values.applyAsLong(current());
+  }
+
+  @Override
+  public Long build() {
+    return buildLong();
+  }
+
+  /**
+   * @param n Maximum number of values to build
+   * @return The first n values, or all values if there are fewer than n
+   */
+  public long[] buildLongs(final int n) {
+    final long[] longs = new long[count(n)];
+    for (int i = 0; i != longs.length; i++) {
+      longs[i] = this.values.applyAsLong(this.position + i);
+    }
+    return longs;
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public LongSequence map(final LongUnaryOperator f) {
+    return new LongSequence(this.values.andThen(f), this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public IntSequence mapToInt(final LongToIntFunction f) {
+    final LongUnaryOperator source = this.values;
+    return new IntSequence(new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        return f.applyAsInt(source.applyAsLong(index));
+      }
+    }, this.position, this.end);
+  }
+
+  /**
+   * @param f Function to apply to each value
+   * @return A sequence of the same length containing the mapped values
+   */
+  public DoubleSequence mapToDouble(final LongToDoubleFunction f) {
+    final LongUnaryOperator source = this.values;
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return f.applyAsDouble(source.applyAsLong(index));
+      }
+    }, this.position, this.end);
+  }
+
+}
@@ -3,18 +3,22 @@ package org.pitest.quickbuilder.common;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
 import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
 /**
  * Builds nothing
  *
  * @param <T> Type to never build
  */
-public class NonBuilder<T> implements SequenceBuilder<T> {
+public class NonBuilder<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
 
   @Override
   public T build() {
@@ -26,6 +30,14 @@ public class NonBuilder<T> implements SequenceBuilder<T> {
     return Maybe.none();
   }
 
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    if (n == 0) {
+      return Maybe.<Builder<T>> some(this);
+    }
+    return Maybe.none();
+  }
+
   @Override
   public List<T> build(int number) {
     return Collections.emptyList();
@@ -45,5 +57,25 @@ public class NonBuilder<T> implements SequenceBuilder<T> {
   public Iterator<T> iterator() {
     return Sequences.iterator(this);
   }  
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceLength length() {
+    return SequenceLength.exactly(0);
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
   
 }
@@ -2,13 +2,14 @@ package org.pitest.quickbuilder.common;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 
 /**
  * Always builds null
  * 
  * @param <T> Type to never build
  */
-public final class NullBuilder<T> implements Builder<T> {
+public final class NullBuilder<T> implements RandomAccessBuilder<T> {
 
   @Override
   public T build() {
@@ -20,4 +21,9 @@ public final class NullBuilder<T> implements Builder<T> {
     return Maybe.<Builder<T>>some(this);
   }
 
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    return Maybe.<Builder<T>> some(this);
+  }
+
 }
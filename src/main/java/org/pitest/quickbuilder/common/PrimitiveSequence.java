@@ -0,0 +1,159 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
+import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
+
+/**
+ * Base for sequences whose values are computed from their index, so that any
+ * position can be reached, limited or skipped without building the values in
+ * between.
+ *
+ * A sequence covers the indexes from position up to, but not including, end.
+ * Sequences ending at UNBOUNDED never run out of values.
+ *
+ * @param <T> Boxed type to build
+ * @param <S> Concrete sequence type
+ */
+abstract class PrimitiveSequence<T, S extends PrimitiveSequence<T, S>>
+    implements SequenceBuilder<T>, RandomAccessBuilder<T> {
+
+  static final long UNBOUNDED = Long.MAX_VALUE;
+
+  final long position;
+  final long end;
+
+  PrimitiveSequence(final long position, final long end) {
+    this.position = position;
+    this.end = end;
+  }
+
+  /**
+   * @param position First index of the new sequence
+   * @param end Index after the last value of the new sequence
+   * @return A sequence sharing the values of this one
+   */
+  abstract S slice(long position, long end);
+
+  /**
+   * Returns the number of positions covered by a range from one value to
+   * another, excluding the to value, with the given step. The distance is
+   * treated as unsigned so ranges spanning the whole of a long are supported.
+   * Ranges with Long.MAX_VALUE or more positions are unbounded.
+   */
+  static long rangeSize(final long from, final long to, final long step) {
+    checkStep(step != 0, step);
+    if ((step > 0) ? (from >= to) : (from <= to)) {
+      return 0;
+    }
+    final long distance = (step > 0) ? (to - from) : (from - to);
+    final long magnitude = (step > 0) ? step : -step;
+    final long size = Long.divideUnsigned(distance - 1, magnitude) + 1;
+    return (size < 0) ? UNBOUNDED : size;
+  }
+
+  static long rangeSize(final double from, final double to, final double step) {
+    checkStep((step != 0) && !Double.isNaN(step), step);
+    final double size = Math.ceil((to - from) / step);
+    if (!(size > 0)) {
+      return 0;
+    }
+    return (size >= UNBOUNDED) ? UNBOUNDED : (long) size;
+  }
+
+  private static void checkStep(final boolean valid, final Object step) {
+    if (!valid) {
+      throw new IllegalArgumentException("Cannot step by " + step);
+    }
+  }
+
+  /**
+   * @return The index of the value built by this builder
+   */
+  final long current() {
+    if (this.position == this.end) {
+      throw new NoValueAvailableError(
+          "Requested a value from sequence, but no values available");
+    }
+    return this.position;
+  }
+
+  /**
+   * @param n Maximum number of values
+   * @return The number of values an array of at most n values will hold
+   */
+  final int count(final int n) {
+    return (int) Math.min(Math.max(n, 0), remaining());
+  }
+
+  private long remaining() {
+    return this.end - this.position;
+  }
+
+  @Override
+  public Maybe<Builder<T>> next() {
+    return advance(1);
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    if (n >= remaining()) {
+      return Maybe.none();
+    }
+    return Maybe.<Builder<T>> some(slice(this.position + n, this.end));
+  }
+
+  @Override
+  public S limit(final int limit) {
+    return slice(this.position, this.position + count(limit));
+  }
+
+  @Override
+  public S skip(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot skip " + n + " values");
+    }
+    return slice(this.position + Math.min(n, remaining()), this.end);
+  }
+
+  @Override
+  public SequenceLength length() {
+    if (this.end == UNBOUNDED) {
+      return SequenceLength.infinite();
+    }
+    return SequenceLength.exactly(remaining());
+  }
+
+  @Override
+  public List<T> build(final int number) {
+    return Sequences.build(this, number);
+  }
+
+  @Override
+  public List<T> buildAll() {
+    return Sequences.buildAll(this);
+  }
+
+  @Override
+  public T at(final int index) {
+    return Sequences.at(this, index);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return Sequences.iterator(this);
+  }
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+}
@@ -0,0 +1,306 @@
+package org.pitest.quickbuilder.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.pitest.quickbuilder.SequenceBuilder;
+
+/**
+ * Infinite sequences of random values.
+ *
+ * The value at each position is drawn from a SplittableRandom created from
+ * the seed and the position alone. Sequences hold no mutable state, so
+ * skipping, splitting or building them in parallel produces exactly the same
+ * values as building them in order.
+ *
+ * The skewed distributions are sampled without creating a generator, from
+ * bits mixed directly from the seed and position, so drawing a value
+ * allocates nothing.
+ */
+public final class RandomValues {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private RandomValues() {
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param from Smallest value, inclusive
+   * @param to Largest value, exclusive
+   * @return Ints evenly distributed between from and to
+   */
+  public static IntSequence ints(final long seed, final int from, final int to) {
+    checkBounds(from < to, from, to);
+    final long base = mix(seed);
+    return new IntSequence(new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        return randomAt(base, index).nextInt(from, to);
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @return Longs evenly distributed over all long values
+   */
+  public static LongSequence longs(final long seed) {
+    final long base = mix(seed);
+    return new LongSequence(new LongUnaryOperator() {
+      @Override
+      public long applyAsLong(final long index) {
+        return randomAt(base, index).nextLong();
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param from Smallest value, inclusive
+   * @param to Largest value, exclusive
+   * @return Longs evenly distributed between from and to
+   */
+  public static LongSequence longs(final long seed, final long from,
+      final long to) {
+    checkBounds(from < to, from, to);
+    final long base = mix(seed);
+    return new LongSequence(new LongUnaryOperator() {
+      @Override
+      public long applyAsLong(final long index) {
+        return randomAt(base, index).nextLong(from, to);
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @return Doubles evenly distributed between zero, inclusive, and one,
+   *         exclusive
+   */
+  public static DoubleSequence doubles(final long seed) {
+    final long base = mix(seed);
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return randomAt(base, index).nextDouble();
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @return Equally likely true and false values
+   */
+  public static SequenceBuilder<Boolean> booleans(final long seed) {
+    final long base = mix(seed);
+    return new IndexedSequence<Boolean>(new LongFunction<Boolean>() {
+      @Override
+      public Boolean apply(final long index) {
+        return randomAt(base, index).nextBoolean();
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param alphabet Characters to draw from, each equally likely
+   * @param minLength Shortest string
+   * @param maxLength Longest string, inclusive
+   * @return Strings of evenly distributed lengths
+   */
+  public static SequenceBuilder<String> strings(final long seed,
+      final String alphabet, final int minLength, final int maxLength) {
+    if (alphabet.isEmpty()) {
+      throw new IllegalArgumentException("Alphabet must not be empty");
+    }
+    checkBounds((minLength >= 0) && (minLength <= maxLength), minLength,
+        maxLength);
+    final char[] chars = alphabet.toCharArray();
+    final long base = mix(seed);
+    return new IndexedSequence<String>(new LongFunction<String>() {
+      @Override
+      public String apply(final long index) {
+        final SplittableRandom random = randomAt(base, index);
+        final char[] s = new char[minLength == maxLength ? minLength : random
+            .nextInt(minLength, maxLength + 1)];
+        for (int i = 0; i != s.length; i++) {
+          s[i] = chars[random.nextInt(chars.length)];
+        }
+        return new String(s);
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param values Values to pick from, each equally likely. The values are
+   *          copied.
+   * @param <T> Type to build
+   * @return Values picked from the list
+   */
+  public static <T> SequenceBuilder<T> elements(final long seed,
+      final List<T> values) {
+    if (values.isEmpty()) {
+      throw new IllegalArgumentException("No values to pick from");
+    }
+    final List<T> copy = new ArrayList<T>(values);
+    final long base = mix(seed);
+    return new IndexedSequence<T>(new LongFunction<T>() {
+      @Override
+      public T apply(final long index) {
+        return copy.get(randomAt(base, index).nextInt(copy.size()));
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param mean Mean of the values
+   * @param standardDeviation Standard deviation of the values
+   * @return Normally distributed doubles
+   */
+  public static DoubleSequence gaussians(final long seed, final double mean,
+      final double standardDeviation) {
+    if (!(standardDeviation >= 0) || Double.isInfinite(standardDeviation)) {
+      throw new IllegalArgumentException("Invalid standard deviation "
+          + standardDeviation);
+    }
+    final long base = mix(seed);
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        // Box-Muller transform, 1 - u keeps the logarithm finite
+        final long bits = bitsAt(base, index);
+        final double radius = Math.sqrt(-2
+            * Math.log(1 - unitDouble(bits)));
+        final double angle = 2 * Math.PI * unitDouble(nextBits(bits));
+        return mean + (standardDeviation * radius * Math.cos(angle));
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * @param seed Seed for the sequence
+   * @param mean Mean of the values, greater than zero
+   * @return Exponentially distributed doubles
+   */
+  public static DoubleSequence exponentials(final long seed, final double mean) {
+    if (!(mean > 0) || Double.isInfinite(mean)) {
+      throw new IllegalArgumentException("Invalid mean " + mean);
+    }
+    final long base = mix(seed);
+    return new DoubleSequence(new LongToDoubleFunction() {
+      @Override
+      public double applyAsDouble(final long index) {
+        return -mean * Math.log(1 - unitDouble(bitsAt(base, index)));
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * Creates a sequence of ranks from 1 to n, where rank k is drawn with
+   * probability proportional to 1 / k^exponent. The ranks are sampled in
+   * constant time from a table of n entries built when the sequence is
+   * created.
+   *
+   * @param seed Seed for the sequence
+   * @param n Number of ranks
+   * @param exponent Skew of the distribution, zero for uniform ranks
+   * @return Zipf distributed ints
+   */
+  public static IntSequence zipf(final long seed, final int n,
+      final double exponent) {
+    if ((n < 1) || !(exponent >= 0) || Double.isInfinite(exponent)) {
+      throw new IllegalArgumentException("Invalid zipf distribution of " + n
+          + " ranks with exponent " + exponent);
+    }
+    final double[] weights = new double[n];
+    for (int k = 0; k != n; k++) {
+      weights[k] = 1 / Math.pow(k + 1, exponent);
+    }
+    final AliasTable table = new AliasTable(weights);
+    final long base = mix(seed);
+    return new IntSequence(new LongToIntFunction() {
+      @Override
+      public int applyAsInt(final long index) {
+        final long bits = bitsAt(base, index);
+        return table.sample(bits, nextBits(bits)) + 1;
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  /**
+   * Creates a sequence of values picked from a list, each in proportion to
+   * its weight. Values are sampled in constant time however many there are.
+   *
+   * @param seed Seed for the sequence
+   * @param values Values to pick from. The values are copied.
+   * @param weights Relative weight of each value, not negative
+   * @param <T> Type to build
+   * @return Values picked from the list
+   */
+  public static <T> SequenceBuilder<T> oneOf(final long seed,
+      final List<T> values, final double... weights) {
+    if (values.size() != weights.length) {
+      throw new IllegalArgumentException(values.size() + " values but "
+          + weights.length + " weights supplied");
+    }
+    final List<T> copy = new ArrayList<T>(values);
+    final AliasTable table = new AliasTable(weights);
+    final long base = mix(seed);
+    return new IndexedSequence<T>(new LongFunction<T>() {
+      @Override
+      public T apply(final long index) {
+        final long bits = bitsAt(base, index);
+        return copy.get(table.sample(bits, nextBits(bits)));
+      }
+    }, 0, PrimitiveSequence.UNBOUNDED);
+  }
+
+  private static SplittableRandom randomAt(final long base, final long index) {
+    return new SplittableRandom(bitsAt(base, index));
+  }
+
+  private static long bitsAt(final long base, final long index) {
+    return mix(base + (index * GOLDEN_GAMMA));
+  }
+
+  // further bits for the same position, as the next output of a SplitMix64
+  // generator seeded with the first
+  private static long nextBits(final long bits) {
+    return mix(bits + GOLDEN_GAMMA);
+  }
+
+  /**
+   * @param bits Uniformly distributed bits
+   * @return A double evenly distributed between zero, inclusive, and one,
+   *         exclusive, made from the top 53 bits
+   */
+  static double unitDouble(final long bits) {
+    return (bits >>> 11) * 0x1.0p-53;
+  }
+
+  // finalizer of MurmurHash3, spreads nearby seeds and positions apart so
+  // that the generators for neighbouring positions do not overlap
+  private static long mix(final long seed) {
+    long z = seed;
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+
+  private static void checkBounds(final boolean valid, final Object from,
+      final Object to) {
+    if (!valid) {
+      throw new IllegalArgumentException("Invalid bounds " + from + " to "
+          + to);
+    }
+  }
+
+}
@@ -2,12 +2,17 @@ package org.pitest.quickbuilder.common;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.NoSuchElementException;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-public class RepeatedBuilder<T> implements SequenceBuilder<T> {
+public class RepeatedBuilder<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
 
   private final Builder<T> child;
   private final int        remaining;
@@ -18,20 +23,82 @@ public class RepeatedBuilder<T> implements SequenceBuilder<T> {
   }
 
   public static <T> RepeatedBuilder<T> once(Builder<T> child) {
-    return new RepeatedBuilder<T>(1, child);
+    return new RepeatedBuilder<T>(1, firstValueOf(child));
   }
 
   public static <T> SequenceBuilder<T> repeat(int times, Builder<T> child) {
     if (times <= 0) {
       return new NonBuilder<T>();
     }
-    return new RepeatedBuilder<T>(times, child);
+    return new RepeatedBuilder<T>(times, firstValueOf(child));
+  }
+
+  /**
+   * Only the first value of the child is built, so wrappers that do not
+   * change it can be discarded.
+   */
+  private static <T> Builder<T> firstValueOf(final Builder<T> child) {
+    final Builder<T> c = Sequences.unwrap(child);
+    if (c instanceof RepeatedBuilder) {
+      return ((RepeatedBuilder<T>) c).child;
+    }
+    if (c instanceof LimitingBuilder) {
+      return firstValueOf(((LimitingBuilder<T>) c).child());
+    }
+    return c;
+  }
+
+  RepeatedBuilder<T> first(final int n) {
+    return new RepeatedBuilder<T>(Math.min(n, size()), this.child);
   }
 
   public T build() {
     return child.build();
   }
 
+  int size() {
+    return this.remaining + 1;
+  }
+
+  /**
+   * Iterates over the remaining values without creating a builder for each
+   * repetition. There are no values if the child is known to have none.
+   */
+  Iterator<T> values() {
+    return new Iterator<T>() {
+      private int remaining = Sequences.isEmpty(RepeatedBuilder.this.child) ? 0
+                                : size();
+
+      @Override
+      public boolean hasNext() {
+        return this.remaining > 0;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        this.remaining--;
+        return RepeatedBuilder.this.child.build();
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    if (n >= size()) {
+      return Maybe.none();
+    }
+    return Maybe.<Builder<T>> some(new RepeatedBuilder<T>((int) (size() - n),
+        this.child));
+  }
+
   @Override
   public Maybe<Builder<T>> next() {
     if (remaining > 0) {
@@ -61,4 +128,33 @@ public class RepeatedBuilder<T> implements SequenceBuilder<T> {
     return Sequences.iterator(this);
   }  
 
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceLength length() {
+    // only the first value of the child is repeated, so the child shortens
+    // the sequence only if it may have no value at all
+    final SequenceLength child = Sequences.length(this.child);
+    if (child.isFinite() && (child.size() == 0)) {
+      return SequenceLength.exactly(0);
+    }
+    if (child.isExact() || child.isInfinite()) {
+      return SequenceLength.exactly(size());
+    }
+    return SequenceLength.atMost(size());
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
+
 }
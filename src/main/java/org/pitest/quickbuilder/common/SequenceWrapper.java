@@ -2,12 +2,16 @@ package org.pitest.quickbuilder.common;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
-class SequenceWrapper<T> implements SequenceBuilder<T>{
+class SequenceWrapper<T> implements SequenceBuilder<T>,
+    RandomAccessBuilder<T> {
 
   private final Builder<T> child;
   
@@ -15,6 +19,10 @@ class SequenceWrapper<T> implements SequenceBuilder<T>{
     this.child = child;
   }
 
+  Builder<T> child() {
+    return this.child;
+  }
+
   @Override
   public T build() {
     return child.build();
@@ -25,11 +33,36 @@ class SequenceWrapper<T> implements SequenceBuilder<T>{
     return child.next();
   }
 
+  @Override
+  public SequenceLength length() {
+    return Sequences.length(this.child);
+  }
+
+  @Override
+  public Maybe<Builder<T>> advance(final long n) {
+    return Sequences.advance(this.child, n);
+  }
+
   @Override
   public Iterator<T> iterator() {
     return Sequences.iterator(this);
   }
 
+  @Override
+  public Spliterator<T> spliterator() {
+    return Sequences.spliterator(this);
+  }
+
+  @Override
+  public SequenceBuilder<T> skip(int n) {
+    return Sequences.skip(this, n);
+  }
+
+  @Override
+  public T at(int index) {
+    return Sequences.at(this, index);
+  }
+
   @Override
   public List<T> build(int number) {
     return Sequences.build(this,number);
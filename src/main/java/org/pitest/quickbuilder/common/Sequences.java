@@ -3,21 +3,29 @@ package org.pitest.quickbuilder.common;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
 /**
  * Operations on builders to generate sequences of values
  */
 public abstract class Sequences {
 
+  private static final int MAX_PRESIZE    = 1 << 16;
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
   /**
    * Builds a list with the maximum possible number of entries.
    * 
-   * WARNING. If called on a builder that is composed of only constants then
-   * this method will not terminate as the list will be of inifnite size.
+   * WARNING. If called on a builder that draws on a sequence of unknown
+   * length that never ends this method will not terminate.
    * 
    * The size of the list is limited by the sizes of the shortest sequence
    * within the builder graph.
@@ -25,9 +33,16 @@ public abstract class Sequences {
    * @param builder Builder from which to generate list
    * @param<T> Type to build
    * @return A List of Ts.
+   * @throws QuickBuilderError if the sequence is known to be infinite
    */
   public static <T> List<T> buildAll(final Builder<T> builder) {
-    final List<T> ts = new ArrayList<T>();
+    final SequenceLength length = length(builder);
+    if (length.isInfinite()) {
+      throw new QuickBuilderError(
+          "buildAll called on an infinite sequence. Limit the sequence first.");
+    }
+    final List<T> ts = new ArrayList<T>(initialCapacity(length,
+        Long.MAX_VALUE));
     Maybe<Builder<T>> next = Maybe.some(builder);
     while (next.hasSome()) {
       ts.add(next.value().build());
@@ -49,7 +64,8 @@ public abstract class Sequences {
    * @return A List of Ts. List will be of length number or less
    */
   public static <T> List<T> build(final Builder<T> builder, final int number) {
-    final List<T> ts = new ArrayList<T>();
+    final List<T> ts = new ArrayList<T>(initialCapacity(length(builder),
+        number));
     Maybe<Builder<T>> next = Maybe.some(builder);
     int count = 0;
     while (next.hasSome() && (count < number)) {
@@ -83,6 +99,19 @@ public abstract class Sequences {
   public static <T> Iterator<T> iterator(Builder<T> builder) {
      return BuilderIterator.iterator(builder);
   }
+
+  /**
+   * Creates a spliterator over the values in the builder. The spliterator is
+   * sized when the length of the sequence is known, and splits by advancing
+   * past values without building them.
+   * 
+   * @param builder The builder to split
+   * @param<T> Type to build
+   * @return A spliterator over the values in the builder
+   */
+  public static <T> Spliterator<T> spliterator(final Builder<T> builder) {
+    return BuilderSpliterator.spliterator(builder);
+  }
   
   /**
    * Wraps a builder in the richer SequenceBuilder interface
@@ -93,6 +122,131 @@ public abstract class Sequences {
    * @return An iterator over the values in the builder
    */
   public static <T> SequenceBuilder<T> decorate(Builder<T> builder) {
-     return new SequenceWrapper<T>(builder);
+    if (builder instanceof SequenceBuilder) {
+      return (SequenceBuilder<T>) builder;
+    }
+    return new SequenceWrapper<T>(builder);
   }  
+
+  /**
+   * @param builder A builder
+   * @param<T> Type to build
+   * @return The builder with any SequenceWrappers around it removed
+   */
+  static <T> Builder<T> unwrap(final Builder<T> builder) {
+    Builder<T> b = builder;
+    while (b instanceof SequenceWrapper) {
+      b = ((SequenceWrapper<T>) b).child();
+    }
+    return b;
+  }
+
+  /**
+   * Reports the length of the sequence represented by a builder as far as it
+   * can be determined without building it.
+   * 
+   * @param builder The builder
+   * @return The length of the sequence
+   */
+  public static SequenceLength length(final Builder<?> builder) {
+    if (builder instanceof SequenceBuilder) {
+      return ((SequenceBuilder<?>) builder).length();
+    }
+    if ((builder instanceof ConstantBuilder)
+        || (builder instanceof NullBuilder)) {
+      return SequenceLength.infinite();
+    }
+    return SequenceLength.unknown();
+  }
+
+  /**
+   * @param builder The builder
+   * @return true if the builder is known to have no values
+   */
+  static boolean isEmpty(final Builder<?> builder) {
+    final SequenceLength length = length(builder);
+    return length.isFinite() && (length.size() == 0);
+  }
+
+  private static int initialCapacity(final SequenceLength length,
+      final long requested) {
+    final long size = Math.min(length.size(), Math.max(requested, 0));
+    if (length.isExact() || length.isInfinite()) {
+      return (int) Math.min(size, MAX_ARRAY_SIZE);
+    }
+    // a bound may be far larger than the sequence, so is trusted only when
+    // small
+    return (int) Math.min(size, MAX_PRESIZE);
+  }
+
+  /**
+   * Returns the builder n positions further along the sequence. Random access
+   * builders move there directly, others are stepped through without building
+   * any values.
+   * 
+   * @param builder The builder
+   * @param n Number of positions to advance
+   * @param<T> Type to build
+   * @return The builder n positions on or none if the sequence is shorter
+   */
+  public static <T> Maybe<Builder<T>> advance(final Builder<T> builder,
+      final long n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot advance " + n + " positions");
+    }
+    if (n == 0) {
+      return Maybe.some(builder);
+    }
+    if (builder instanceof RandomAccessBuilder) {
+      return ((RandomAccessBuilder<T>) builder).advance(n);
+    }
+    return step(builder, n);
+  }
+
+  /**
+   * Returns the sequence starting n values on from the builder. Skipping past
+   * the end returns an empty sequence.
+   * 
+   * @param builder The builder
+   * @param n Number of values to skip
+   * @param<T> Type to build
+   * @return A builder sequence without the first n values
+   */
+  public static <T> SequenceBuilder<T> skip(final Builder<T> builder,
+      final int n) {
+    final Maybe<Builder<T>> advanced = advance(builder, n);
+    if (advanced.hasNone()) {
+      return new NonBuilder<T>();
+    }
+    if (advanced.value() instanceof SequenceBuilder) {
+      return (SequenceBuilder<T>) advanced.value();
+    }
+    return decorate(advanced.value());
+  }
+
+  /**
+   * Builds the value at a position in the sequence without building the
+   * values before it.
+   * 
+   * @param builder The builder
+   * @param index Position of the value
+   * @param<T> Type to build
+   * @return The value
+   */
+  public static <T> T at(final Builder<T> builder, final int index) {
+    final Maybe<Builder<T>> advanced = advance(builder, index);
+    if (advanced.hasNone()) {
+      throw new NoValueAvailableError("No value at index " + index
+          + " of sequence");
+    }
+    return advanced.value().build();
+  }
+
+  static <T> Maybe<Builder<T>> step(final Builder<T> builder, final long n) {
+    Maybe<Builder<T>> next = Maybe.some(builder);
+    for (long i = 0; (i != n) && next.hasSome(); i++) {
+      next = next.value().next();
+    }
+    return next;
+  }
 }
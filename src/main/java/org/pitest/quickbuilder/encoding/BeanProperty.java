@@ -0,0 +1,213 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * A readable property of a built type.
+ *
+ * Getters are found by reflection once per type and held as method handles,
+ * adapted to take an Object and return an int, long, double, boolean or
+ * Object, so values are read without reflection and int, long, double and
+ * boolean values are not boxed.
+ */
+final class BeanProperty {
+
+  enum Kind {
+    INT, LONG, DOUBLE, BOOLEAN, OBJECT
+  }
+
+  private static final ClassValue<Map<String, BeanProperty>> PROPERTIES = new ClassValue<Map<String, BeanProperty>>() {
+    @Override
+    protected Map<String, BeanProperty> computeValue(final Class<?> type) {
+      return findProperties(type);
+    }
+  };
+
+  private final String       name;
+  private final Kind         kind;
+  private final MethodHandle getter;
+
+  private BeanProperty(final String name, final Kind kind,
+      final MethodHandle getter) {
+    this.name = name;
+    this.kind = kind;
+    this.getter = getter;
+  }
+
+  /**
+   * @param type Built type
+   * @param names Properties to read, in order, or none for every property
+   *          sorted by name
+   * @return The properties
+   */
+  static List<BeanProperty> of(final Class<?> type, final String... names) {
+    final Map<String, BeanProperty> all = PROPERTIES.get(type);
+    if (names.length == 0) {
+      return Collections.unmodifiableList(new ArrayList<BeanProperty>(all
+          .values()));
+    }
+    final List<BeanProperty> ps = new ArrayList<BeanProperty>();
+    for (final String each : names) {
+      final BeanProperty p = all.get(each);
+      if (p == null) {
+        throw new QuickBuilderError("No getter found for property " + each
+            + " on " + type.getName());
+      }
+      ps.add(p);
+    }
+    return Collections.unmodifiableList(ps);
+  }
+
+  String name() {
+    return this.name;
+  }
+
+  Kind kind() {
+    return this.kind;
+  }
+
+  int getInt(final Object bean) {
+    try {
+      return (int) this.getter.invokeExact(bean);
+    } catch (final Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  long getLong(final Object bean) {
+    try {
+      return (long) this.getter.invokeExact(bean);
+    } catch (final Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  double getDouble(final Object bean) {
+    try {
+      return (double) this.getter.invokeExact(bean);
+    } catch (final Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  boolean getBoolean(final Object bean) {
+    try {
+      return (boolean) this.getter.invokeExact(bean);
+    } catch (final Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  Object get(final Object bean) {
+    try {
+      return this.getter.invokeExact(bean);
+    } catch (final Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  private static RuntimeException rethrow(final Throwable t) {
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    throw new QuickBuilderError("Unexpected error reading property",
+        new Exception(t));
+  }
+
+  private static Map<String, BeanProperty> findProperties(final Class<?> type) {
+    final Map<String, BeanProperty> ps = new TreeMap<String, BeanProperty>();
+    for (final Method m : type.getMethods()) {
+      final String name = propertyName(m);
+      if (name != null) {
+        ps.put(name, create(name, m));
+      }
+    }
+    return Collections.unmodifiableMap(ps);
+  }
+
+  private static String propertyName(final Method m) {
+    if (Modifier.isStatic(m.getModifiers()) || m.isBridge()
+        || (m.getParameterTypes().length != 0)
+        || m.getDeclaringClass().equals(Object.class)) {
+      return null;
+    }
+    final String n = m.getName();
+    if (n.startsWith("get") && (n.length() > 3)
+        && !m.getReturnType().equals(Void.TYPE)) {
+      return decapitalize(n.substring(3));
+    }
+    if (n.startsWith("is") && (n.length() > 2)
+        && m.getReturnType().equals(boolean.class)) {
+      return decapitalize(n.substring(2));
+    }
+    return null;
+  }
+
+  private static String decapitalize(final String s) {
+    return Character.toLowerCase(s.charAt(0)) + s.substring(1);
+  }
+
+  private static BeanProperty create(final String name, final Method m) {
+    final Kind kind = kindOf(m.getReturnType());
+    try {
+      m.setAccessible(true);
+    } catch (final RuntimeException e) {
+      // public getters of public types can be read without
+    }
+    try {
+      final MethodHandle getter = MethodHandles.lookup().unreflect(m);
+      return new BeanProperty(name, kind, getter.asType(MethodType.methodType(
+          returnType(kind), Object.class)));
+    } catch (final IllegalAccessException e) {
+      throw new QuickBuilderError("Cannot read property " + name + " of "
+          + m.getDeclaringClass().getName(), e);
+    }
+  }
+
+  private static Kind kindOf(final Class<?> type) {
+    if (type.equals(int.class) || type.equals(short.class)
+        || type.equals(byte.class)) {
+      return Kind.INT;
+    }
+    if (type.equals(long.class)) {
+      return Kind.LONG;
+    }
+    if (type.equals(double.class)) {
+      return Kind.DOUBLE;
+    }
+    if (type.equals(boolean.class)) {
+      return Kind.BOOLEAN;
+    }
+    return Kind.OBJECT;
+  }
+
+  private static Class<?> returnType(final Kind kind) {
+    switch (kind) {
+    case INT:
+      return int.class;
+    case LONG:
+      return long.class;
+    case DOUBLE:
+      return double.class;
+    case BOOLEAN:
+      return boolean.class;
+    default:
+      return Object.class;
+    }
+  }
+
+}
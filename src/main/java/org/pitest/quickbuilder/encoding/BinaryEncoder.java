@@ -0,0 +1,66 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes each value as a record preceded by its length in bytes.
+ *
+ * Within a record properties are written in order. Ints, shorts and bytes
+ * take 4 bytes, longs and doubles 8 and booleans 1. Other values are written
+ * as the UTF-8 bytes of their toString preceded by the number of bytes, or
+ * -1 for null. All numbers are big endian.
+ *
+ * @param <T> Type of value encoded
+ */
+final class BinaryEncoder<T> implements RecordEncoder<T> {
+
+  private final List<BeanProperty> properties;
+
+  BinaryEncoder(final List<BeanProperty> properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  public void begin(final RecordOutput out) {
+    // no header
+  }
+
+  @Override
+  public void encode(final T value, final RecordOutput out)
+      throws IOException {
+    out.beginLengthPrefixed();
+    for (final BeanProperty each : this.properties) {
+      writeValue(each, value, out);
+    }
+    out.endLengthPrefixed();
+  }
+
+  private static void writeValue(final BeanProperty p, final Object bean,
+      final RecordOutput out) throws IOException {
+    switch (p.kind()) {
+    case INT:
+      out.writeInt(p.getInt(bean));
+      break;
+    case LONG:
+      out.writeLong(p.getLong(bean));
+      break;
+    case DOUBLE:
+      out.writeDouble(p.getDouble(bean));
+      break;
+    case BOOLEAN:
+      out.writeBoolean(p.getBoolean(bean));
+      break;
+    default:
+      final Object o = p.get(bean);
+      if (o == null) {
+        out.writeInt(-1);
+      } else {
+        final String s = o.toString();
+        out.writeInt(RecordOutput.utf8Length(s));
+        out.writeUtf8(s);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of direct buffers of a single size.
+ *
+ * Direct buffers are expensive to allocate and are only released when
+ * collected, so buffers are returned here once a write completes and reused
+ * by later writes. At most max buffers are retained, buffers beyond that are
+ * left to the garbage collector.
+ */
+final class BufferPool {
+
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private static final BufferPool SHARED = new BufferPool(BUFFER_SIZE, 16);
+
+  private final int bufferSize;
+  private final BlockingQueue<ByteBuffer> buffers;
+
+  BufferPool(final int bufferSize, final int max) {
+    this.bufferSize = bufferSize;
+    this.buffers = new ArrayBlockingQueue<ByteBuffer>(max);
+  }
+
+  static BufferPool shared() {
+    return SHARED;
+  }
+
+  /**
+   * @return A cleared buffer, taken from the pool if one is available
+   */
+  ByteBuffer acquire() {
+    final ByteBuffer pooled = this.buffers.poll();
+    if (pooled != null) {
+      return pooled;
+    }
+    return ByteBuffer.allocateDirect(this.bufferSize);
+  }
+
+  /**
+   * Returns a buffer to the pool. Buffers of other sizes are not retained.
+   *
+   * @param buffer Buffer that is no longer used
+   */
+  void release(final ByteBuffer buffer) {
+    if (buffer.capacity() == this.bufferSize) {
+      buffer.clear();
+      this.buffers.offer(buffer);
+    }
+  }
+
+  int size() {
+    return this.buffers.size();
+  }
+
+}
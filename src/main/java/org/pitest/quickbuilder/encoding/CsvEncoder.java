@@ -0,0 +1,99 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes values as RFC 4180 comma separated rows, preceded by a header row
+ * of property names. Null values are written as empty fields.
+ *
+ * @param <T> Type of value encoded
+ */
+final class CsvEncoder<T> implements RecordEncoder<T> {
+
+  private static final String      LINE_END = "\r\n";
+
+  private final List<BeanProperty> properties;
+
+  CsvEncoder(final List<BeanProperty> properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  public void begin(final RecordOutput out) throws IOException {
+    for (int i = 0; i != this.properties.size(); i++) {
+      if (i != 0) {
+        out.writeByte(',');
+      }
+      writeField(this.properties.get(i).name(), out);
+    }
+    out.writeUtf8(LINE_END);
+  }
+
+  @Override
+  public void encode(final T value, final RecordOutput out)
+      throws IOException {
+    for (int i = 0; i != this.properties.size(); i++) {
+      if (i != 0) {
+        out.writeByte(',');
+      }
+      writeValue(this.properties.get(i), value, out);
+    }
+    out.writeUtf8(LINE_END);
+  }
+
+  private static void writeValue(final BeanProperty p, final Object bean,
+      final RecordOutput out) throws IOException {
+    switch (p.kind()) {
+    case INT:
+      out.writeDecimal(p.getInt(bean));
+      break;
+    case LONG:
+      out.writeDecimal(p.getLong(bean));
+      break;
+    case DOUBLE:
+      out.writeUtf8(Double.toString(p.getDouble(bean)));
+      break;
+    case BOOLEAN:
+      out.writeUtf8(p.getBoolean(bean) ? "true" : "false");
+      break;
+    default:
+      final Object o = p.get(bean);
+      if (o != null) {
+        writeField(o.toString(), out);
+      }
+    }
+  }
+
+  // fields containing separators, quotes or line breaks are quoted, with
+  // quotes doubled
+  private static void writeField(final String s, final RecordOutput out)
+      throws IOException {
+    if (!needsQuotes(s)) {
+      out.writeUtf8(s);
+      return;
+    }
+    out.writeByte('"');
+    int from = 0;
+    for (int i = 0; i != s.length(); i++) {
+      if (s.charAt(i) == '"') {
+        out.writeUtf8(s, from, i + 1);
+        out.writeByte('"');
+        from = i + 1;
+      }
+    }
+    out.writeUtf8(s, from, s.length());
+    out.writeByte('"');
+  }
+
+  private static boolean needsQuotes(final String s) {
+    for (int i = 0; i != s.length(); i++) {
+      final char c = s.charAt(i);
+      if ((c == ',') || (c == '"') || (c == '\r') || (c == '\n')) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
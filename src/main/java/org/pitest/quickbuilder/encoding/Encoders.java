@@ -0,0 +1,123 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Consumer;
+
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+/**
+ * Writes the values of a sequence to a channel or stream as they are built.
+ *
+ * Values are encoded into a pooled direct buffer that is written out each
+ * time it fills, and no value is referenced once it has been encoded, so
+ * memory use does not grow with the length of the sequence.
+ *
+ * The supplied encoders read the getters of the built type. Unless a list of
+ * properties is given every readable property is written, sorted by name.
+ */
+public final class Encoders {
+
+  private Encoders() {
+  }
+
+  /**
+   * @param type Built type
+   * @param properties Properties to write, in order
+   * @param <T> Type of value encoded
+   * @return An encoder writing a header row then comma separated rows
+   */
+  public static <T> RecordEncoder<T> csv(final Class<T> type,
+      final String... properties) {
+    return new CsvEncoder<T>(BeanProperty.of(type, properties));
+  }
+
+  /**
+   * @param type Built type
+   * @param properties Properties to write, in order
+   * @param <T> Type of value encoded
+   * @return An encoder writing one JSON object per line
+   */
+  public static <T> RecordEncoder<T> jsonLines(final Class<T> type,
+      final String... properties) {
+    return new JsonLinesEncoder<T>(BeanProperty.of(type, properties));
+  }
+
+  /**
+   * @param type Built type
+   * @param properties Properties to write, in order
+   * @param <T> Type of value encoded
+   * @return An encoder writing binary records preceded by their length
+   */
+  public static <T> RecordEncoder<T> binary(final Class<T> type,
+      final String... properties) {
+    return new BinaryEncoder<T>(BeanProperty.of(type, properties));
+  }
+
+  /**
+   * Builds every value of a sequence and writes it to the channel. The
+   * channel is not closed.
+   *
+   * @param values Sequence to write
+   * @param encoder Encoder for the values
+   * @param out Blocking channel to write to
+   * @param <T> Type of value encoded
+   * @return Number of bytes written
+   * @throws IOException if the channel cannot be written to
+   * @throws QuickBuilderError if the sequence is known to be infinite
+   */
+  public static <T> long write(final SequenceBuilder<T> values,
+      final RecordEncoder<? super T> encoder, final WritableByteChannel out)
+      throws IOException {
+    if (values.length().isInfinite()) {
+      throw new QuickBuilderError(
+          "Cannot write an infinite sequence. Limit it first.");
+    }
+    final RecordOutput output = new RecordOutput(out, BufferPool.shared());
+    try {
+      encoder.begin(output);
+      values.forEach(new Consumer<T>() {
+        @Override
+        public void accept(final T value) {
+          try {
+            encoder.encode(value, output);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      });
+      final long written = output.bytesWritten();
+      output.finish();
+      return written;
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      output.release();
+    }
+  }
+
+  /**
+   * Builds every value of a sequence and writes it to the stream. The stream
+   * is flushed but not closed.
+   *
+   * @param values Sequence to write
+   * @param encoder Encoder for the values
+   * @param out Stream to write to
+   * @param <T> Type of value encoded
+   * @return Number of bytes written
+   * @throws IOException if the stream cannot be written to
+   * @throws QuickBuilderError if the sequence is known to be infinite
+   */
+  public static <T> long write(final SequenceBuilder<T> values,
+      final RecordEncoder<? super T> encoder, final OutputStream out)
+      throws IOException {
+    final long written = write(values, encoder, Channels.newChannel(out));
+    out.flush();
+    return written;
+  }
+
+}
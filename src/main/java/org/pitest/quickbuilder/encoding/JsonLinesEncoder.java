@@ -0,0 +1,134 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes each value as a JSON object on its own line. Numbers and booleans
+ * are written as JSON literals, other values as strings of their toString.
+ * Nulls and non finite numbers are written as null.
+ *
+ * @param <T> Type of value encoded
+ */
+final class JsonLinesEncoder<T> implements RecordEncoder<T> {
+
+  private static final char[]      HEX = "0123456789abcdef".toCharArray();
+
+  private final List<BeanProperty> properties;
+  private final String[]           keys;
+
+  JsonLinesEncoder(final List<BeanProperty> properties) {
+    this.properties = properties;
+    this.keys = new String[properties.size()];
+    for (int i = 0; i != this.keys.length; i++) {
+      final String prefix = (i == 0) ? "{" : ",";
+      this.keys[i] = prefix + quote(properties.get(i).name()) + ":";
+    }
+  }
+
+  @Override
+  public void begin(final RecordOutput out) {
+    // no header
+  }
+
+  @Override
+  public void encode(final T value, final RecordOutput out)
+      throws IOException {
+    if (this.keys.length == 0) {
+      out.writeByte('{');
+    }
+    for (int i = 0; i != this.keys.length; i++) {
+      out.writeUtf8(this.keys[i]);
+      writeValue(this.properties.get(i), value, out);
+    }
+    out.writeByte('}');
+    out.writeByte('\n');
+  }
+
+  private static void writeValue(final BeanProperty p, final Object bean,
+      final RecordOutput out) throws IOException {
+    switch (p.kind()) {
+    case INT:
+      out.writeDecimal(p.getInt(bean));
+      break;
+    case LONG:
+      out.writeDecimal(p.getLong(bean));
+      break;
+    case DOUBLE:
+      writeNumber(p.getDouble(bean), out);
+      break;
+    case BOOLEAN:
+      out.writeUtf8(p.getBoolean(bean) ? "true" : "false");
+      break;
+    default:
+      writeObject(p.get(bean), out);
+    }
+  }
+
+  private static void writeObject(final Object o, final RecordOutput out)
+      throws IOException {
+    if (o == null) {
+      out.writeUtf8("null");
+    } else if ((o instanceof Double) || (o instanceof Float)) {
+      writeNumber(((Number) o).doubleValue(), out);
+    } else if ((o instanceof Number) || (o instanceof Boolean)) {
+      out.writeUtf8(o.toString());
+    } else {
+      writeString(o.toString(), out);
+    }
+  }
+
+  private static void writeNumber(final double d, final RecordOutput out)
+      throws IOException {
+    if (Double.isNaN(d) || Double.isInfinite(d)) {
+      out.writeUtf8("null");
+    } else {
+      out.writeUtf8(Double.toString(d));
+    }
+  }
+
+  // writes runs of plain characters in one call, escaping the rest
+  private static void writeString(final String s, final RecordOutput out)
+      throws IOException {
+    out.writeByte('"');
+    int from = 0;
+    for (int i = 0; i != s.length(); i++) {
+      final char c = s.charAt(i);
+      if ((c < 0x20) || (c == '"') || (c == '\\')) {
+        out.writeUtf8(s, from, i);
+        writeEscaped(c, out);
+        from = i + 1;
+      }
+    }
+    out.writeUtf8(s, from, s.length());
+    out.writeByte('"');
+  }
+
+  private static void writeEscaped(final char c, final RecordOutput out)
+      throws IOException {
+    out.writeByte('\\');
+    switch (c) {
+    case '"':
+    case '\\':
+      out.writeByte(c);
+      break;
+    case '\n':
+      out.writeByte('n');
+      break;
+    case '\r':
+      out.writeByte('r');
+      break;
+    case '\t':
+      out.writeByte('t');
+      break;
+    default:
+      out.writeByte('u').writeByte('0').writeByte('0')
+          .writeByte(HEX[c >> 4]).writeByte(HEX[c & 0xf]);
+    }
+  }
+
+  private static String quote(final String s) {
+    return '"' + s + '"';
+  }
+
+}
@@ -0,0 +1,29 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+
+/**
+ * Encodes built values as records.
+ *
+ * @param <T> Type of value encoded
+ */
+public interface RecordEncoder<T> {
+
+  /**
+   * Writes anything that precedes the first record, such as a header row.
+   *
+   * @param out Destination
+   * @throws IOException if the destination cannot be written to
+   */
+  void begin(RecordOutput out) throws IOException;
+
+  /**
+   * Writes one value as a record.
+   *
+   * @param value Value to encode
+   * @param out Destination
+   * @throws IOException if the destination cannot be written to
+   */
+  void encode(T value, RecordOutput out) throws IOException;
+
+}
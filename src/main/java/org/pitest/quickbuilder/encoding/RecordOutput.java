@@ -0,0 +1,256 @@
+package org.pitest.quickbuilder.encoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Destination for encoded records.
+ *
+ * Bytes are gathered in a pooled direct buffer and written to the channel
+ * whenever it fills, so memory use is bounded by the buffer size and the
+ * largest length prefixed record rather than by the number of records.
+ * Multi byte numbers are written big endian.
+ */
+public final class RecordOutput {
+
+  private static final int          NO_RECORD = -1;
+
+  private final WritableByteChannel channel;
+  private final BufferPool          pool;
+  private ByteBuffer                buffer;
+  private long                      flushed;
+  private int                       recordStart = NO_RECORD;
+
+  RecordOutput(final WritableByteChannel channel, final BufferPool pool) {
+    this.channel = channel;
+    this.pool = pool;
+    this.buffer = pool.acquire();
+  }
+
+  public RecordOutput writeByte(final int b) throws IOException {
+    ensure(1);
+    this.buffer.put((byte) b);
+    return this;
+  }
+
+  public RecordOutput writeBoolean(final boolean b) throws IOException {
+    return writeByte(b ? 1 : 0);
+  }
+
+  public RecordOutput writeInt(final int i) throws IOException {
+    ensure(4);
+    this.buffer.putInt(i);
+    return this;
+  }
+
+  public RecordOutput writeLong(final long l) throws IOException {
+    ensure(8);
+    this.buffer.putLong(l);
+    return this;
+  }
+
+  public RecordOutput writeDouble(final double d) throws IOException {
+    ensure(8);
+    this.buffer.putDouble(d);
+    return this;
+  }
+
+  /**
+   * Writes the decimal digits of a long, preceded by a minus sign if it is
+   * negative, without creating a string.
+   *
+   * @param l Value to write
+   * @return This output
+   * @throws IOException if the channel cannot be written to
+   */
+  public RecordOutput writeDecimal(final long l) throws IOException {
+    ensure(20);
+    if (l < 0) {
+      this.buffer.put((byte) '-');
+    }
+    // work with the negative value as Long.MIN_VALUE has no positive
+    long n = (l < 0) ? l : -l;
+    int digits = 1;
+    for (long rest = n; rest <= -10; rest /= 10) {
+      digits++;
+    }
+    final int end = this.buffer.position() + digits;
+    for (int i = end - 1; i >= (end - digits); i--) {
+      this.buffer.put(i, (byte) ('0' - (n % 10)));
+      n /= 10;
+    }
+    this.buffer.position(end);
+    return this;
+  }
+
+  /**
+   * Writes characters encoded as UTF-8.
+   *
+   * @param s Characters to write
+   * @return This output
+   * @throws IOException if the channel cannot be written to
+   */
+  public RecordOutput writeUtf8(final CharSequence s) throws IOException {
+    return writeUtf8(s, 0, s.length());
+  }
+
+  /**
+   * Writes a range of characters encoded as UTF-8.
+   *
+   * @param s Characters to write
+   * @param from Index of the first character to write
+   * @param to Index after the last character to write
+   * @return This output
+   * @throws IOException if the channel cannot be written to
+   */
+  public RecordOutput writeUtf8(final CharSequence s, final int from,
+      final int to) throws IOException {
+    for (int i = from; i < to; i++) {
+      final char c = s.charAt(i);
+      if (this.buffer.remaining() < 4) {
+        ensure(4);
+      }
+      if (c < 0x80) {
+        this.buffer.put((byte) c);
+      } else if (c < 0x800) {
+        this.buffer.put((byte) (0xc0 | (c >> 6)));
+        this.buffer.put((byte) (0x80 | (c & 0x3f)));
+      } else if (Character.isHighSurrogate(c) && ((i + 1) < to)
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        final int cp = Character.toCodePoint(c, s.charAt(++i));
+        this.buffer.put((byte) (0xf0 | (cp >> 18)));
+        this.buffer.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+        this.buffer.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+        this.buffer.put((byte) (0x80 | (cp & 0x3f)));
+      } else if (Character.isSurrogate(c)) {
+        this.buffer.put((byte) '?');
+      } else {
+        this.buffer.put((byte) (0xe0 | (c >> 12)));
+        this.buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+        this.buffer.put((byte) (0x80 | (c & 0x3f)));
+      }
+    }
+    return this;
+  }
+
+  /**
+   * @param s Characters to measure
+   * @return The number of bytes writeUtf8 will write for the characters
+   */
+  public static int utf8Length(final CharSequence s) {
+    final int length = s.length();
+    int bytes = 0;
+    for (int i = 0; i != length; i++) {
+      final char c = s.charAt(i);
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && ((i + 1) < length)
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        bytes += 1;
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Starts a record that will be preceded by its length in bytes, as an int.
+   * The record is kept in the buffer until it is ended so that the length can
+   * be filled in, the buffer grows if a record does not fit.
+   *
+   * @throws IOException if the channel cannot be written to
+   */
+  public void beginLengthPrefixed() throws IOException {
+    if (this.recordStart != NO_RECORD) {
+      throw new IllegalStateException(
+          "Length prefixed record already started");
+    }
+    ensure(4);
+    this.recordStart = this.buffer.position();
+    this.buffer.position(this.recordStart + 4);
+  }
+
+  /**
+   * Fills in the length of the record started by beginLengthPrefixed.
+   */
+  public void endLengthPrefixed() {
+    if (this.recordStart == NO_RECORD) {
+      throw new IllegalStateException("No length prefixed record started");
+    }
+    this.buffer.putInt(this.recordStart, this.buffer.position()
+        - this.recordStart - 4);
+    this.recordStart = NO_RECORD;
+  }
+
+  /**
+   * @return Number of bytes written so far, including those still buffered
+   */
+  public long bytesWritten() {
+    return this.flushed + this.buffer.position();
+  }
+
+  /**
+   * Writes any buffered bytes and returns the buffer to the pool. The output
+   * must not be used afterwards.
+   *
+   * @throws IOException if the channel cannot be written to
+   */
+  void finish() throws IOException {
+    this.recordStart = NO_RECORD;
+    flush();
+    release();
+  }
+
+  /**
+   * Returns the buffer to the pool without writing it.
+   */
+  void release() {
+    if (this.buffer != null) {
+      this.pool.release(this.buffer);
+      this.buffer = null;
+    }
+  }
+
+  private void ensure(final int bytes) throws IOException {
+    if (this.buffer.remaining() < bytes) {
+      flush();
+      if (this.buffer.remaining() < bytes) {
+        grow(bytes);
+      }
+    }
+  }
+
+  // writes everything before any open record, which must stay buffered
+  private void flush() throws IOException {
+    final int end = this.buffer.position();
+    final int upTo = (this.recordStart == NO_RECORD) ? end : this.recordStart;
+    this.buffer.flip();
+    this.buffer.limit(upTo);
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.limit(end);
+    this.buffer.compact();
+    this.flushed += upTo;
+    if (this.recordStart != NO_RECORD) {
+      this.recordStart = 0;
+    }
+  }
+
+  private void grow(final int bytes) {
+    final ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(
+        this.buffer.capacity() * 2, this.buffer.position() + bytes));
+    this.buffer.flip();
+    larger.put(this.buffer);
+    this.pool.release(this.buffer);
+    this.buffer = larger;
+  }
+
+}
@@ -4,6 +4,7 @@ import static org.objectweb.asm.Opcodes.ACC_BRIDGE;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
 import static org.objectweb.asm.Opcodes.ACONST_NULL;
@@ -12,22 +13,30 @@ import static org.objectweb.asm.Opcodes.ARETURN;
 import static org.objectweb.asm.Opcodes.ASTORE;
 import static org.objectweb.asm.Opcodes.ATHROW;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DCONST_0;
 import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.FCONST_0;
 import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
 import static org.objectweb.asm.Opcodes.GOTO;
 import static org.objectweb.asm.Opcodes.ICONST_0;
 import static org.objectweb.asm.Opcodes.ICONST_1;
 import static org.objectweb.asm.Opcodes.IFEQ;
 import static org.objectweb.asm.Opcodes.IFNONNULL;
 import static org.objectweb.asm.Opcodes.IFNULL;
+import static org.objectweb.asm.Opcodes.IF_ACMPEQ;
+import static org.objectweb.asm.Opcodes.IF_ACMPNE;
 import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INSTANCEOF;
 import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
-import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.LLOAD;
 import static org.objectweb.asm.Opcodes.NEW;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
 import static org.objectweb.asm.Opcodes.RETURN;
 
 import java.util.LinkedHashSet;
@@ -41,47 +50,89 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.DoubleBuilder;
 import org.pitest.quickbuilder.Generator;
+import org.pitest.quickbuilder.IntBuilder;
+import org.pitest.quickbuilder.LongBuilder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.RandomAccessBuilder;
 import org.pitest.quickbuilder.SequenceBuilder;
-import org.pitest.quickbuilder.common.ConstantBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 
 class BuilderBuilder {
 
-  private static final TypeName CONSTANT_BUILDER = TypeName
-                                                         .fromClass(ConstantBuilder.class);
-  private static final String   GENERATOR_FIELD      = "___generator";
+  private static final String   GENERATOR_FIELD        = "___generator";
+  private static final String   VALUE_SUFFIX           = "___value";
+  private static final String   UNSET_SUFFIX           = "___unset";
+  private static final String   SELF_FIELD             = "___self";
+  private static final String   BUILDER_IMPLEMENTATION = "org/pitest/quickbuilder/internal/BuilderImplementation";
   private static final TypeName BUILDER_INTERFACE    = TypeName
                                                          .fromClass(Builder.class);
   private static final TypeName GENERATOR            = TypeName
                                                          .fromClass(Generator.class);
+  private static final TypeName NO_VALUE_ERROR       = TypeName
+                                                         .fromClass(NoValueAvailableError.class);
+  private static final TypeName MAYBE                = TypeName
+                                                         .fromClass(Maybe.class);
 
   private static final TypeName SequenceBuilder      = TypeName
                                                          .fromClass(SequenceBuilder.class);
+  private static final TypeName RANDOM_ACCESS        = TypeName
+                                                         .fromClass(RandomAccessBuilder.class);
+  private static final TypeName SEQUENCE_LENGTH      = TypeName
+                                                         .fromClass(SequenceLength.class);
+  private static final TypeName INT_BUILDER          = TypeName
+                                                         .fromClass(IntBuilder.class);
+  private static final TypeName LONG_BUILDER         = TypeName
+                                                         .fromClass(LongBuilder.class);
+  private static final TypeName DOUBLE_BUILDER       = TypeName
+                                                         .fromClass(DoubleBuilder.class);
+  private static final String   SEQUENCES            = "org/pitest/quickbuilder/common/Sequences";
 
   private final String          builderName;
   private final String          proxiedName;
   private final String          built;
   private final List<Property>  ps;
-
+  private final int             classVersion;
+  private final boolean         computeFrames;
+  private final ClassLoader     loader;
+  private final boolean         mutable;
+  private final List<String>    copyTypes;
+
+  /**
+   * @param copyTypes Internal names of the return types of the copy methods
+   *          declared by the interface, empty if it declares none
+   */
   BuilderBuilder(final String builderName, final String proxiedName,
-      final String built, final List<Property> ps) {
+      final String built, final List<Property> ps, final int classVersion,
+      final boolean computeFrames, final ClassLoader loader,
+      final boolean mutable, final List<String> copyTypes) {
     this.builderName = builderName;
     this.proxiedName = proxiedName;
     this.built = built;
     this.ps = ps;
+    this.classVersion = classVersion;
+    this.computeFrames = computeFrames;
+    this.loader = loader;
+    this.mutable = mutable;
+    this.copyTypes = copyTypes;
   }
 
   public byte[] build() throws Exception {
 
-    final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    final ClassWriter cw = this.computeFrames ? new FrameComputingWriter(
+        this.loader) : new ClassWriter(ClassWriter.COMPUTE_MAXS);
 
-    cw.visit(Opcodes.V1_5, ACC_PUBLIC + ACC_SUPER, this.builderName,
+    cw.visit(this.classVersion, ACC_PUBLIC + ACC_SUPER, this.builderName,
         "Ljava/lang/Object;L" + BUILDER_INTERFACE.name() + "<L" + this.built
-            + ";>;" + "L" + this.proxiedName + ";", "java/lang/Object",
+            + ";>;" + "L" + RANDOM_ACCESS.name() + "<L" + this.built + ";>;"
+            + "L" + this.proxiedName + ";", "java/lang/Object",
         new String[] { BUILDER_INTERFACE.name(), SequenceBuilder.name(),
-            this.proxiedName });
+            RANDOM_ACCESS.name(), this.proxiedName });
 
     createFields(cw);
+    createStaticInitializer(cw);
 
     createInitMethod(cw);
     if (!this.uniqueProperties().isEmpty()) {
@@ -92,13 +143,21 @@ class BuilderBuilder {
 
     createBuildMethod(cw);
     createBridgeForBuildMethod(cw);
+    if (!this.copyTypes.isEmpty()) {
+      createCopyMethod(cw);
+      createBridgesForCopyMethod(cw);
+    }
 
-    createHasNextMethod(cw);
     createNextMethod(cw);
+    createAdvanceMethod(cw);
     createSequenceBuildMethod(cw);
     createBuildAllMethod(cw);
     createLimitMethod(cw);
     createIteratorMethod(cw);
+    createSpliteratorMethod(cw);
+    createSkipMethod(cw);
+    createAtMethod(cw);
+    createLengthMethod(cw);
 
     cw.visitEnd();
 
@@ -116,46 +175,82 @@ class BuilderBuilder {
             "()Lorg/pitest/quickbuilder/Maybe;",
             "()Lorg/pitest/quickbuilder/Maybe<Lorg/pitest/quickbuilder/Builder<TT;>;>;",
             null);
-    mv.visitCode();
+    createSuccessor(mv, false);
+  }
 
-    mv.visitVarInsn(ALOAD, 0);
-    mv.visitMethodInsn(INVOKEVIRTUAL, this.builderName, "hasNext", "()Z", false);
-    final Label l1 = new Label();
-    mv.visitJumpInsn(IFEQ, l1);
+  private void createAdvanceMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw
+        .visitMethod(
+            ACC_PUBLIC,
+            "advance",
+            "(J)Lorg/pitest/quickbuilder/Maybe;",
+            "(J)Lorg/pitest/quickbuilder/Maybe<Lorg/pitest/quickbuilder/Builder<TT;>;>;",
+            null);
+    createSuccessor(mv, true);
+  }
 
-    mv.visitVarInsn(ALOAD, 0);
+  /**
+   * Generates the body of next, or of advance when the successor is a number
+   * of positions on held in the long argument.
+   */
+  private void createSuccessor(final MethodVisitor mv, final boolean advance) {
+    mv.visitCode();
 
-    mv.visitTypeInsn(NEW, this.builderName);
-    mv.visitInsn(DUP);
-    mv.visitVarInsn(ALOAD, 0);
-    mv.visitFieldInsn(GETFIELD, this.builderName, GENERATOR_FIELD,
-        GENERATOR.type());
+    if (!this.mutable) {
+      returnSelfIfAllConstant(mv);
+    }
 
+    // advance each property once, holding the successors in locals
+    final Label none = new Label();
+    final int firstLocal = advance ? 3 : 1;
+    int local = firstLocal;
     for (final Property each : this.uniqueProperties()) {
-      mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-          "Lorg/pitest/quickbuilder/Builder;");
-
-      final Label nullCheck = new Label();
-      mv.visitJumpInsn(IFNULL, nullCheck);
-
-      mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-          "Lorg/pitest/quickbuilder/Builder;");
-
-      mv.visitMethodInsn(INVOKEINTERFACE, "org/pitest/quickbuilder/Builder",
-          "next", "()Lorg/pitest/quickbuilder/Maybe;", true);
+      final Label unchanged = new Label();
+      final Label propHandled = new Label();
+      loadBuilderField(mv, each);
+      mv.visitJumpInsn(IFNULL, unchanged);
+      jumpIfRawValue(mv, each, unchanged);
+
+      loadBuilderField(mv, each);
+      if (advance) {
+        mv.visitVarInsn(LLOAD, 1);
+        mv.visitMethodInsn(INVOKESTATIC, SEQUENCES, "advance",
+            "(Lorg/pitest/quickbuilder/Builder;J)Lorg/pitest/quickbuilder/Maybe;",
+            false);
+      } else {
+        mv.visitMethodInsn(INVOKEINTERFACE, "org/pitest/quickbuilder/Builder",
+            "next", "()Lorg/pitest/quickbuilder/Maybe;", true);
+      }
+      mv.visitVarInsn(ASTORE, local);
+      mv.visitVarInsn(ALOAD, local);
+      mv.visitMethodInsn(INVOKEVIRTUAL, "org/pitest/quickbuilder/Maybe",
+          "hasSome", "()Z", false);
+      mv.visitJumpInsn(IFEQ, none);
+      mv.visitVarInsn(ALOAD, local);
       mv.visitMethodInsn(INVOKEVIRTUAL, "org/pitest/quickbuilder/Maybe",
           "value", "()Ljava/lang/Object;", false);
       mv.visitTypeInsn(CHECKCAST, "org/pitest/quickbuilder/Builder");
-      final Label propHandled = new Label();
+      mv.visitVarInsn(ASTORE, local);
       mv.visitJumpInsn(GOTO, propHandled);
-      mv.visitLabel(nullCheck);
-      mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-          "Lorg/pitest/quickbuilder/Builder;");
+
+      mv.visitLabel(unchanged);
+      loadBuilderField(mv, each);
+      mv.visitVarInsn(ASTORE, local);
       mv.visitLabel(propHandled);
+      local++;
+    }
 
+    mv.visitTypeInsn(NEW, this.builderName);
+    mv.visitInsn(DUP);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitFieldInsn(GETFIELD, this.builderName, GENERATOR_FIELD,
+        GENERATOR.type());
+
+    local = firstLocal;
+    for (final Property each : this.uniqueProperties()) {
+      mv.visitVarInsn(ALOAD, local);
+      loadValueField(mv, each);
+      local++;
     }
 
     mv.visitMethodInsn(INVOKESPECIAL, this.builderName, "<init>",
@@ -165,7 +260,7 @@ class BuilderBuilder {
         "(Ljava/lang/Object;)Lorg/pitest/quickbuilder/Maybe;", false);
     mv.visitInsn(ARETURN);
 
-    mv.visitLabel(l1);
+    mv.visitLabel(none);
     mv.visitMethodInsn(INVOKESTATIC, "org/pitest/quickbuilder/Maybe", "none",
         "()Lorg/pitest/quickbuilder/Maybe$None;", false);
     mv.visitInsn(ARETURN);
@@ -175,6 +270,37 @@ class BuilderBuilder {
 
   }
 
+  private void returnSelfIfAllConstant(final MethodVisitor mv) {
+    final Label advance = new Label();
+    for (final Property each : this.uniqueProperties()) {
+      final Label constant = new Label();
+      loadBuilderField(mv, each);
+      mv.visitJumpInsn(IFNULL, constant);
+      loadBuilderField(mv, each);
+      mv.visitFieldInsn(GETSTATIC, BUILDER_IMPLEMENTATION, "RAW_VALUE",
+          BUILDER_INTERFACE.type());
+      mv.visitJumpInsn(IF_ACMPNE, advance);
+      mv.visitLabel(constant);
+    }
+
+    // an immutable builder of constants is its own successor
+    final Label cached = new Label();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitFieldInsn(GETFIELD, this.builderName, SELF_FIELD, MAYBE.type());
+    mv.visitJumpInsn(IFNONNULL, cached);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKESTATIC, MAYBE.name(), "some",
+        "(Ljava/lang/Object;)Lorg/pitest/quickbuilder/Maybe;", false);
+    mv.visitFieldInsn(PUTFIELD, this.builderName, SELF_FIELD, MAYBE.type());
+    mv.visitLabel(cached);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitFieldInsn(GETFIELD, this.builderName, SELF_FIELD, MAYBE.type());
+    mv.visitInsn(ARETURN);
+
+    mv.visitLabel(advance);
+  }
+
   private void createPropertyMethods(final ClassWriter cw) {
 
     for (final Property each : this.ps) {
@@ -216,14 +342,17 @@ class BuilderBuilder {
       final Property each) {
     mv.visitVarInsn(ALOAD, 0);
     mv.visitVarInsn(ALOAD, index);
-    mv.visitMethodInsn(INVOKESTATIC,
-        "org/pitest/quickbuilder/internal/BuilderImplementation",
-        "copyBuilder",
+    mv.visitMethodInsn(INVOKESTATIC, BUILDER_IMPLEMENTATION, "copyBuilder",
         "(Lorg/pitest/quickbuilder/Builder;)Lorg/pitest/quickbuilder/Builder;",
         false);
     mv.visitFieldInsn(PUTFIELD, this.builderName, each.name(),
         "Lorg/pitest/quickbuilder/Builder;");
-    return index + 1;
+
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(each.loadIns(), index + 1);
+    mv.visitFieldInsn(PUTFIELD, this.builderName, valueField(each),
+        each.type());
+    return index + 1 + each.size();
   }
 
   private String copyConstructorSignature() {
@@ -235,6 +364,7 @@ class BuilderBuilder {
     for (final Property each : this.uniqueProperties()) {
       sb.append("Lorg/pitest/quickbuilder/Builder<" + each.declaredType()
           + ">;");
+      sb.append(each.type());
     }
 
     sb.append(";)V");
@@ -243,10 +373,12 @@ class BuilderBuilder {
   }
 
   private String initDescriptor() {
-    return "("
-        + GENERATOR.type()
-        + StringUtils.repeat("Lorg/pitest/quickbuilder/Builder;", this
-            .uniqueProperties().size()) + ")V";
+    final StringBuilder sb = new StringBuilder("(" + GENERATOR.type());
+    for (final Property each : this.uniqueProperties()) {
+      sb.append(BUILDER_INTERFACE.type());
+      sb.append(each.type());
+    }
+    return sb.append(")V").toString();
   }
 
   private void createAccessor(final ClassWriter cw, final Property each) {
@@ -260,31 +392,76 @@ class BuilderBuilder {
 
     final Label l = new Label();
     mv.visitJumpInsn(IFNONNULL, l);
-    mv.visitTypeInsn(NEW, "org/pitest/quickbuilder/NoValueAvailableError");
-    mv.visitInsn(DUP);
-    mv.visitLdcInsn("_" + each.name()
-        + "() called, but no value has been set for property " + each.name());
-    mv.visitMethodInsn(INVOKESPECIAL,
-        "org/pitest/quickbuilder/NoValueAvailableError", "<init>",
-        "(Ljava/lang/String;)V", false);
+    mv.visitFieldInsn(GETSTATIC, this.builderName, unsetField(each),
+        NO_VALUE_ERROR.type());
     mv.visitInsn(ATHROW);
 
     mv.visitLabel(l);
-    mv.visitVarInsn(ALOAD, 0);
-    mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-        "Lorg/pitest/quickbuilder/Builder;");
-
-    mv.visitMethodInsn(INVOKEINTERFACE, "org/pitest/quickbuilder/Builder",
-        "build", "()Ljava/lang/Object;", true);
+    final Label raw = new Label();
+    jumpIfRawValue(mv, each, raw);
 
-    castPrimitives(each, mv);
+    buildFromBuilderField(mv, each);
+    mv.visitInsn(each.returnOp());
 
+    mv.visitLabel(raw);
+    loadValueField(mv, each);
     mv.visitInsn(each.returnOp());
     mv.visitMaxs(1, 1);
     mv.visitEnd();
 
   }
 
+  /**
+   * Pushes the value built by the builder field of a property. Int, long and
+   * double properties supplied by a primitive builder are built without
+   * boxing.
+   */
+  private void buildFromBuilderField(final MethodVisitor mv, final Property p) {
+    loadBuilderField(mv, p);
+    final TypeName primitive = primitiveBuilder(p);
+    final Label boxed = new Label();
+    final Label done = new Label();
+    if (primitive != null) {
+      mv.visitInsn(DUP);
+      mv.visitTypeInsn(INSTANCEOF, primitive.name());
+      mv.visitJumpInsn(IFEQ, boxed);
+      mv.visitTypeInsn(CHECKCAST, primitive.name());
+      mv.visitMethodInsn(INVOKEINTERFACE, primitive.name(),
+          primitiveBuildMethod(p), "()" + p.type(), true);
+      mv.visitJumpInsn(GOTO, done);
+    }
+
+    mv.visitLabel(boxed);
+    mv.visitMethodInsn(INVOKEINTERFACE, BUILDER_INTERFACE.name(), "build",
+        "()Ljava/lang/Object;", true);
+    castPrimitives(p, mv);
+    mv.visitLabel(done);
+  }
+
+  private static TypeName primitiveBuilder(final Property p) {
+    switch (p.getSort()) {
+    case Type.INT:
+      return INT_BUILDER;
+    case Type.LONG:
+      return LONG_BUILDER;
+    case Type.DOUBLE:
+      return DOUBLE_BUILDER;
+    default:
+      return null;
+    }
+  }
+
+  private static String primitiveBuildMethod(final Property p) {
+    switch (p.getSort()) {
+    case Type.INT:
+      return "buildInt";
+    case Type.LONG:
+      return "buildLong";
+    default:
+      return "buildDouble";
+    }
+  }
+
   private void castPrimitives(final Property each, final MethodVisitor mv) {
     if (each.getSort() == Type.INT) {
       mv.visitTypeInsn(CHECKCAST, "java/lang/Integer");
@@ -323,6 +500,29 @@ class BuilderBuilder {
     }
   }
 
+  private void createStaticInitializer(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V",
+        null, null);
+    mv.visitCode();
+
+    // thrown each time an unset property is read, so has no stack trace
+    for (final Property each : this.uniqueProperties()) {
+      mv.visitTypeInsn(NEW, NO_VALUE_ERROR.name());
+      mv.visitInsn(DUP);
+      mv.visitLdcInsn("_" + each.name()
+          + "() called, but no value has been set for property " + each.name());
+      mv.visitInsn(ICONST_0);
+      mv.visitMethodInsn(INVOKESPECIAL, NO_VALUE_ERROR.name(), "<init>",
+          "(Ljava/lang/String;Z)V", false);
+      mv.visitFieldInsn(PUTSTATIC, this.builderName, unsetField(each),
+          NO_VALUE_ERROR.type());
+    }
+
+    mv.visitInsn(RETURN);
+    mv.visitMaxs(1, 1);
+    mv.visitEnd();
+  }
+
   private void createInitMethod(final ClassWriter cw) {
     final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "("
         + GENERATOR.type() + ")V", "(L" + GENERATOR.name() + "<L" + this.built
@@ -358,16 +558,32 @@ class BuilderBuilder {
             + this.built + ";L" + this.builderName + ";>;", null);
     fv1.visitEnd();
 
+    if (!this.mutable) {
+      // lazily created, racing threads create equivalent values
+      final FieldVisitor self = cw.visitField(ACC_PRIVATE, SELF_FIELD,
+          MAYBE.type(), null, null);
+      self.visitEnd();
+    }
+
     final Set<Property> uniquePs = uniqueProperties();
     for (final Property each : uniquePs) {
       final FieldVisitor fv = cw.visitField(fieldFlags(), each.name(),
           BUILDER_INTERFACE.type(),
           "L" + BUILDER_INTERFACE.name() + "<" + each.type() + ";>;", null);
       fv.visitEnd();
+      final FieldVisitor value = cw.visitField(fieldFlags(),
+          valueField(each), each.type(), null, null);
+      value.visitEnd();
+      final FieldVisitor unset = cw.visitField(ACC_PRIVATE + ACC_STATIC
+          + ACC_FINAL, unsetField(each), NO_VALUE_ERROR.type(), null, null);
+      unset.visitEnd();
     }
   }
 
   private int fieldFlags() {
+    if (this.mutable) {
+      return ACC_PRIVATE;
+    }
     return ACC_PRIVATE + ACC_FINAL;
   }
 
@@ -377,7 +593,11 @@ class BuilderBuilder {
   }
 
   private void createWithMethod(final ClassWriter cw, final Property prop) {
-    createImmutableWithMethod(cw, prop);
+    if (this.mutable) {
+      createMutableWithMethod(cw, prop);
+    } else {
+      createImmutableWithMethod(cw, prop);
+    }
 
     if (prop.needsBridge()) {
       createBridge(prop, cw);
@@ -412,16 +632,11 @@ class BuilderBuilder {
         GENERATOR.type());
 
     for (final Property each : this.uniqueProperties()) {
-      if (each.name().equals(prop.name())) {
-        if (!prop.isBuilder()) {
-          wrapInBuilderObject(prop, mv);
-        } else {
-          mv.visitVarInsn(ALOAD, 1);
-        }
+      if (each.equals(prop)) {
+        pushArgumentAsFields(mv, prop);
       } else {
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-            "Lorg/pitest/quickbuilder/Builder;");
+        loadBuilderField(mv, each);
+        loadValueField(mv, each);
       }
     }
 
@@ -434,15 +649,159 @@ class BuilderBuilder {
 
   }
 
-  private void wrapInBuilderObject(final Property prop, final MethodVisitor mv) {
-    mv.visitTypeInsn(NEW, CONSTANT_BUILDER.name());
-    mv.visitInsn(DUP);
-    mv.visitVarInsn(prop.loadIns(), 1);
+  private void createMutableWithMethod(final ClassWriter cw,
+      final Property prop) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, prop.withMethodName(),
+        "(" + prop.declaredType() + ")L" + this.proxiedName + ";", null, null);
+    mv.visitCode();
+
+    final Type argument = Type.getType(prop.declaredType());
+    final int value = 1 + argument.getSize();
+    final int builder = value + prop.size();
+    pushArgumentAsFields(mv, prop);
+    mv.visitVarInsn(prop.storeIns(), value);
+    mv.visitVarInsn(ASTORE, builder);
+
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(ALOAD, builder);
+    mv.visitFieldInsn(PUTFIELD, this.builderName, prop.name(),
+        BUILDER_INTERFACE.type());
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(prop.loadIns(), value);
+    mv.visitFieldInsn(PUTFIELD, this.builderName, valueField(prop),
+        prop.type());
+
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(1, 1);
+    mv.visitEnd();
+  }
+
+  private void createCopyMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "copy", "()L"
+        + this.proxiedName + ";", null, null);
+    mv.visitCode();
+
+    if (this.mutable) {
+      mv.visitTypeInsn(NEW, this.builderName);
+      mv.visitInsn(DUP);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitFieldInsn(GETFIELD, this.builderName, GENERATOR_FIELD,
+          GENERATOR.type());
+      for (final Property each : this.uniqueProperties()) {
+        loadBuilderField(mv, each);
+        loadValueField(mv, each);
+      }
+      mv.visitMethodInsn(INVOKESPECIAL, this.builderName, "<init>",
+          initDescriptor(), false);
+    } else {
+      // immutable builders can be shared
+      mv.visitVarInsn(ALOAD, 0);
+    }
 
-    convertPrimitiveToWrappingObject(prop, mv);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(1, 1);
+    mv.visitEnd();
+  }
+
+  // copy may be inherited with other erased return types, each of which
+  // needs a bridge to the method returning the proxied interface
+  private void createBridgesForCopyMethod(final ClassWriter cw) {
+    for (final String each : this.copyTypes) {
+      if (each.equals(this.proxiedName)) {
+        continue;
+      }
+      final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC + ACC_BRIDGE
+          + ACC_SYNTHETIC, "copy", "()L" + each + ";", null, null);
+      mv.visitCode();
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKEVIRTUAL, this.builderName, "copy", "()L"
+          + this.proxiedName + ";", false);
+      mv.visitInsn(ARETURN);
+      mv.visitMaxs(1, 1);
+      mv.visitEnd();
+    }
+  }
+
+  /**
+   * Pushes the builder and value field contents for the argument of a with
+   * method. Plain values and constant builders are held unboxed in the value
+   * field, other builders in the builder field.
+   */
+  private void pushArgumentAsFields(final MethodVisitor mv, final Property prop) {
+    if (!prop.isBuilder()) {
+      mv.visitFieldInsn(GETSTATIC, BUILDER_IMPLEMENTATION, "RAW_VALUE",
+          BUILDER_INTERFACE.type());
+      mv.visitVarInsn(prop.loadIns(), 1);
+      return;
+    }
+
+    final Label notConstant = new Label();
+    final Label done = new Label();
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitInsn(prop.isPrimitive() ? ICONST_1 : ICONST_0);
+    mv.visitMethodInsn(INVOKESTATIC, BUILDER_IMPLEMENTATION, "isConstant",
+        "(Lorg/pitest/quickbuilder/Builder;Z)Z", false);
+    mv.visitJumpInsn(IFEQ, notConstant);
+    mv.visitFieldInsn(GETSTATIC, BUILDER_IMPLEMENTATION, "RAW_VALUE",
+        BUILDER_INTERFACE.type());
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitMethodInsn(INVOKEINTERFACE, BUILDER_INTERFACE.name(), "build",
+        "()Ljava/lang/Object;", true);
+    castPrimitives(prop, mv);
+    mv.visitJumpInsn(GOTO, done);
+
+    mv.visitLabel(notConstant);
+    mv.visitVarInsn(ALOAD, 1);
+    pushDefaultValue(mv, prop);
+    mv.visitLabel(done);
+  }
+
+  private void pushDefaultValue(final MethodVisitor mv, final Property prop) {
+    switch (prop.getSort()) {
+    case Type.LONG:
+      mv.visitInsn(LCONST_0);
+      break;
+    case Type.FLOAT:
+      mv.visitInsn(FCONST_0);
+      break;
+    case Type.DOUBLE:
+      mv.visitInsn(DCONST_0);
+      break;
+    case Type.OBJECT:
+    case Type.ARRAY:
+      mv.visitInsn(ACONST_NULL);
+      break;
+    default:
+      mv.visitInsn(ICONST_0);
+    }
+  }
+
+  private void loadBuilderField(final MethodVisitor mv, final Property p) {
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitFieldInsn(GETFIELD, this.builderName, p.name(),
+        BUILDER_INTERFACE.type());
+  }
 
-    mv.visitMethodInsn(INVOKESPECIAL, CONSTANT_BUILDER.name(), "<init>",
-        "(Ljava/lang/Object;)V", false);
+  private void loadValueField(final MethodVisitor mv, final Property p) {
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitFieldInsn(GETFIELD, this.builderName, valueField(p), p.type());
+  }
+
+  private void jumpIfRawValue(final MethodVisitor mv, final Property p,
+      final Label target) {
+    loadBuilderField(mv, p);
+    mv.visitFieldInsn(GETSTATIC, BUILDER_IMPLEMENTATION, "RAW_VALUE",
+        BUILDER_INTERFACE.type());
+    mv.visitJumpInsn(IF_ACMPEQ, target);
+  }
+
+  private static String valueField(final Property p) {
+    return p.name() + VALUE_SUFFIX;
+  }
+
+  private static String unsetField(final Property p) {
+    return p.name() + UNSET_SUFFIX;
   }
 
   private void convertPrimitiveToWrappingObject(final Property prop,
@@ -525,15 +884,17 @@ class BuilderBuilder {
     mv.visitJumpInsn(IFNULL, l);
 
     mv.visitVarInsn(ALOAD, 1);
-    mv.visitVarInsn(ALOAD, 0);
-    mv.visitFieldInsn(GETFIELD, this.builderName, p.name(),
-        "Lorg/pitest/quickbuilder/Builder;");
+    final Label raw = new Label();
+    final Label set = new Label();
+    jumpIfRawValue(mv, p, raw);
 
-    mv.visitMethodInsn(INVOKEINTERFACE, BUILDER_INTERFACE.name(), "build",
-        "()Ljava/lang/Object;", true);
+    buildFromBuilderField(mv, p);
+    mv.visitJumpInsn(GOTO, set);
 
-    castPrimitives(p, mv);
+    mv.visitLabel(raw);
+    loadValueField(mv, p);
 
+    mv.visitLabel(set);
     mv.visitMethodInsn(INVOKEVIRTUAL, this.built, p.setter().name(), p.setter()
         .desc(), false);
 
@@ -564,6 +925,18 @@ class BuilderBuilder {
     final Label l2 = new Label();
     mv.visitTryCatchBlock(l0, l1, l2,
         "org/pitest/quickbuilder/QuickBuilderError");
+
+    // unset and plain values are handled without an exception
+    final Label set = new Label();
+    loadBuilderField(mv, each);
+    mv.visitJumpInsn(IFNONNULL, set);
+    mv.visitMethodInsn(INVOKESTATIC, "org/pitest/quickbuilder/Maybe", "none",
+        "()Lorg/pitest/quickbuilder/Maybe$None;", false);
+    mv.visitInsn(ARETURN);
+
+    mv.visitLabel(set);
+    final Label raw = new Label();
+    jumpIfRawValue(mv, each, raw);
     mv.visitLabel(l0);
 
     mv.visitVarInsn(ALOAD, 0);
@@ -582,42 +955,14 @@ class BuilderBuilder {
     mv.visitMethodInsn(INVOKESTATIC, "org/pitest/quickbuilder/Maybe", "none",
         "()Lorg/pitest/quickbuilder/Maybe$None;", false);
     mv.visitInsn(ARETURN);
-    mv.visitMaxs(1, 2);
-    mv.visitEnd();
-
-  }
-
-  private void createHasNextMethod(final ClassWriter cw) {
-
-    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "hasNext", "()Z", null,
-        null);
-
-    mv.visitCode();
-    final Label l1 = new Label();
-
-    for (final Property each : this.uniqueProperties()) {
-      mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-          "Lorg/pitest/quickbuilder/Builder;");
-      final Label nullCheck = new Label();
-      mv.visitJumpInsn(IFNULL, nullCheck);
-      mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(GETFIELD, this.builderName, each.name(),
-          "Lorg/pitest/quickbuilder/Builder;");
-      mv.visitMethodInsn(INVOKEINTERFACE, "org/pitest/quickbuilder/Builder",
-          "next", "()Lorg/pitest/quickbuilder/Maybe;", true);
-      mv.visitMethodInsn(INVOKEVIRTUAL, "org/pitest/quickbuilder/Maybe",
-          "hasSome", "()Z", false);
-      mv.visitJumpInsn(IFEQ, l1);
-      mv.visitLabel(nullCheck);
-    }
 
-    mv.visitInsn(ICONST_1);
-    mv.visitInsn(IRETURN);
-    mv.visitLabel(l1);
-    mv.visitInsn(ICONST_0);
-    mv.visitInsn(IRETURN);
-    mv.visitMaxs(1, 1);
+    mv.visitLabel(raw);
+    loadValueField(mv, each);
+    convertPrimitiveToWrappingObject(each, mv);
+    mv.visitMethodInsn(INVOKESTATIC, "org/pitest/quickbuilder/Maybe", "some",
+        "(Ljava/lang/Object;)Lorg/pitest/quickbuilder/Maybe;", false);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(1, 2);
     mv.visitEnd();
 
   }
@@ -678,4 +1023,116 @@ class BuilderBuilder {
       mv.visitMaxs(1, 1);
       mv.visitEnd();   
   }
+
+  private void createSkipMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "skip", "(I)"
+        + SequenceBuilder.type(), "(I)L" + SequenceBuilder.name() + "<TT;>;",
+        null);
+    mv.visitCode();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(ILOAD, 1);
+    mv.visitMethodInsn(INVOKESTATIC, SEQUENCES, "skip",
+        "(Lorg/pitest/quickbuilder/Builder;I)" + SequenceBuilder.type(), false);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(2, 2);
+    mv.visitEnd();
+  }
+
+  private void createAtMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "at",
+        "(I)Ljava/lang/Object;", "(I)TT;", null);
+    mv.visitCode();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitVarInsn(ILOAD, 1);
+    mv.visitMethodInsn(INVOKESTATIC, SEQUENCES, "at",
+        "(Lorg/pitest/quickbuilder/Builder;I)Ljava/lang/Object;", false);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(2, 2);
+    mv.visitEnd();
+  }
+
+  /**
+   * The sequence ends when the first property sequence ends, so its length is
+   * the shortest of their lengths. Properties holding plain values do not
+   * limit it.
+   */
+  private void createLengthMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "length", "()"
+        + SEQUENCE_LENGTH.type(), null, null);
+    mv.visitCode();
+    mv.visitMethodInsn(INVOKESTATIC, SEQUENCE_LENGTH.name(), "infinite", "()"
+        + SEQUENCE_LENGTH.type(), false);
+    mv.visitVarInsn(ASTORE, 1);
+    for (final Property each : this.uniqueProperties()) {
+      final Label unlimited = new Label();
+      loadBuilderField(mv, each);
+      mv.visitJumpInsn(IFNULL, unlimited);
+      jumpIfRawValue(mv, each, unlimited);
+      mv.visitVarInsn(ALOAD, 1);
+      loadBuilderField(mv, each);
+      mv.visitMethodInsn(INVOKESTATIC, SEQUENCES, "length", "("
+          + BUILDER_INTERFACE.type() + ")" + SEQUENCE_LENGTH.type(), false);
+      mv.visitMethodInsn(INVOKEVIRTUAL, SEQUENCE_LENGTH.name(), "min", "("
+          + SEQUENCE_LENGTH.type() + ")" + SEQUENCE_LENGTH.type(), false);
+      mv.visitVarInsn(ASTORE, 1);
+      mv.visitLabel(unlimited);
+    }
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(3, 2);
+    mv.visitEnd();
+  }
+
+  private void createSpliteratorMethod(final ClassWriter cw) {
+    final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "spliterator",
+        "()Ljava/util/Spliterator;", "()Ljava/util/Spliterator<TT;>;", null);
+    mv.visitCode();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKESTATIC, "org/pitest/quickbuilder/common/Sequences",
+        "spliterator",
+        "(Lorg/pitest/quickbuilder/Builder;)Ljava/util/Spliterator;", false);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(1, 1);
+    mv.visitEnd();
+  }
+
+  /**
+   * Computes frames resolving types through the loader of the builder
+   * interface rather than the loader of ASM.
+   */
+  private static class FrameComputingWriter extends ClassWriter {
+
+    private final ClassLoader loader;
+
+    FrameComputingWriter(final ClassLoader loader) {
+      super(ClassWriter.COMPUTE_FRAMES);
+      this.loader = loader;
+    }
+
+    @Override
+    protected String getCommonSuperClass(final String type1, final String type2) {
+      try {
+        Class<?> c = Class.forName(type1.replace('/', '.'), false, this.loader);
+        final Class<?> d = Class.forName(type2.replace('/', '.'), false,
+            this.loader);
+        if (c.isAssignableFrom(d)) {
+          return type1;
+        }
+        if (d.isAssignableFrom(c)) {
+          return type2;
+        }
+        if (c.isInterface() || d.isInterface()) {
+          return "java/lang/Object";
+        }
+        do {
+          c = c.getSuperclass();
+        } while (!c.isAssignableFrom(d));
+        return c.getName().replace('.', '/');
+      } catch (final ClassNotFoundException e) {
+        return "java/lang/Object";
+      }
+    }
+
+  }
+
 }
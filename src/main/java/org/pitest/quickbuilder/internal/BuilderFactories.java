@@ -0,0 +1,89 @@
+package org.pitest.quickbuilder.internal;
+
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.BuilderFactory;
+
+/**
+ * Caches a factory for each builder interface, so the reflective work of
+ * resolving a builder is done only once per interface.
+ *
+ * Factories are held in a ClassValue so do not prevent the builder interface
+ * and its generated class from being unloaded. If the
+ * quickbuilder.maxLoadedBuilders system property is set, at most that many
+ * factories are retained and the least recently used are discarded.
+ */
+public class BuilderFactories {
+
+  public static final String MAX_LOADED_PROPERTY = "quickbuilder.maxLoadedBuilders";
+
+  private static final ClassValue<BuilderFactory<?, ?>> FACTORIES         = new FactoryValue(
+                                                                            false);
+  private static final ClassValue<BuilderFactory<?, ?>> MUTABLE_FACTORIES = new FactoryValue(
+                                                                            true);
+
+  private static final RecentlyUsedBuilders RECENT = makeRecentlyUsed(Integer
+      .getInteger(MAX_LOADED_PROPERTY, 0));
+
+  @SuppressWarnings("unchecked")
+  public static <T, B extends Builder<T>> BuilderFactory<T, B> factoryFor(
+      final Class<B> builder) {
+    return (BuilderFactory<T, B>) lookup(FACTORIES, builder);
+  }
+
+  /**
+   * Returns a factory for builders whose with methods update the builder in
+   * place rather than returning a copy.
+   *
+   * @param builder The builder interface
+   * @return A factory
+   */
+  @SuppressWarnings("unchecked")
+  public static <T, B extends Builder<T>> BuilderFactory<T, B> mutableFactoryFor(
+      final Class<B> builder) {
+    return (BuilderFactory<T, B>) lookup(MUTABLE_FACTORIES, builder);
+  }
+
+  private static BuilderFactory<?, ?> lookup(
+      final ClassValue<BuilderFactory<?, ?>> factories, final Class<?> builder) {
+    final BuilderFactory<?, ?> factory = factories.get(builder);
+    if (RECENT != null) {
+      RECENT.touch(builder);
+    }
+    return factory;
+  }
+
+  static void evict(final Class<?> builder) {
+    FACTORIES.remove(builder);
+    MUTABLE_FACTORIES.remove(builder);
+    TypeScanner.evict(builder);
+  }
+
+  private static RecentlyUsedBuilders makeRecentlyUsed(final int max) {
+    if (max <= 0) {
+      return null;
+    }
+    return new RecentlyUsedBuilders(max) {
+      @Override
+      void evict(final Class<?> builder) {
+        BuilderFactories.evict(builder);
+      }
+    };
+  }
+
+  private static class FactoryValue extends ClassValue<BuilderFactory<?, ?>> {
+
+    private final boolean mutable;
+
+    FactoryValue(final boolean mutable) {
+      this.mutable = mutable;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    protected BuilderFactory<?, ?> computeValue(final Class<?> type) {
+      return new TypeScanner(type, null, this.mutable).factory();
+    }
+
+  }
+
+}
@@ -1,9 +1,45 @@
 package org.pitest.quickbuilder.internal;
 
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.common.ConstantBuilder;
+import org.pitest.quickbuilder.common.NullBuilder;
 
 public class BuilderImplementation {
 
+  /**
+   * Placed in the builder field of a generated class when the property holds
+   * a plain value in its unboxed value field. Never built from.
+   */
+  public static final Builder<Object> RAW_VALUE = new Builder<Object>() {
+    @Override
+    public Object build() {
+      throw new IllegalStateException("Value held outside builder");
+    }
+
+    @Override
+    public Maybe<Builder<Object>> next() {
+      throw new IllegalStateException("Value held outside builder");
+    }
+  };
+
+  /**
+   * @param b A builder passed to a generated with method
+   * @param primitive true if the property is of a primitive type
+   * @return true if the builder always builds the same value, which can be
+   *         held directly by the generated builder
+   */
+  public static boolean isConstant(final Builder<?> b, final boolean primitive) {
+    if (b == null) {
+      return false;
+    }
+    // subclasses may override build
+    if (b.getClass() == ConstantBuilder.class) {
+      return !primitive || (b.build() != null);
+    }
+    return !primitive && (b.getClass() == NullBuilder.class);
+  }
+
   public static Builder<?> copyBuilder(final Builder<?> b) {
     if (b == null) {
       return null;
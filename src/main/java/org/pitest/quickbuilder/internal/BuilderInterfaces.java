@@ -0,0 +1,144 @@
+package org.pitest.quickbuilder.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.DoubleBuilder;
+import org.pitest.quickbuilder.IntBuilder;
+import org.pitest.quickbuilder.LongBuilder;
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+/**
+ * Locates builder interfaces.
+ *
+ * Class files are inspected with ASM before anything is loaded, so only
+ * interfaces are passed to the classloader and no classes are initialised.
+ */
+public class BuilderInterfaces {
+
+  private static final String CLASS_SUFFIX = ".class";
+
+  /**
+   * @param c A type
+   * @return true if QuickBuilder should implement the type
+   */
+  public static boolean isBuilderInterface(final Class<?> c) {
+    // interfaces with type parameters are base interfaces for other builders
+    return c.isInterface() && Builder.class.isAssignableFrom(c)
+        && !c.equals(Builder.class) && !c.equals(SequenceBuilder.class)
+        && !c.equals(IntBuilder.class) && !c.equals(LongBuilder.class)
+        && !c.equals(DoubleBuilder.class)
+        && (c.getTypeParameters().length == 0);
+  }
+
+  /**
+   * Finds the builder interfaces in a package and its sub packages, in
+   * directories or jars visible to the supplied loader.
+   *
+   * @param packageName Name of the package eg com.example
+   * @param loader Loader to search
+   * @return The builder interfaces found
+   */
+  public static List<Class<?>> inPackage(final String packageName,
+      final ClassLoader loader) {
+    final String path = packageName.replace('.', '/');
+    final Set<String> names = new LinkedHashSet<String>();
+    try {
+      final Enumeration<URL> roots = loader.getResources(path);
+      while (roots.hasMoreElements()) {
+        final URL each = roots.nextElement();
+        if ("file".equals(each.getProtocol())) {
+          findInDirectory(new File(each.toURI()), names);
+        } else if ("jar".equals(each.getProtocol())) {
+          findInJar(each, path, names);
+        }
+      }
+    } catch (final IOException e) {
+      throw new QuickBuilderError("Could not scan package " + packageName, e);
+    } catch (final URISyntaxException e) {
+      throw new QuickBuilderError("Could not scan package " + packageName, e);
+    }
+
+    final List<Class<?>> builders = new ArrayList<Class<?>>();
+    for (final String each : names) {
+      final Class<?> c = load(loader, each);
+      if ((c != null) && isBuilderInterface(c)) {
+        builders.add(c);
+      }
+    }
+    return builders;
+  }
+
+  private static void findInDirectory(final File dir, final Set<String> names)
+      throws IOException {
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (final File each : files) {
+      if (each.isDirectory()) {
+        findInDirectory(each, names);
+      } else if (each.getName().endsWith(CLASS_SUFFIX)) {
+        addIfInterface(each.toURI().toURL().openStream(), names);
+      }
+    }
+  }
+
+  private static void findInJar(final URL url, final String path,
+      final Set<String> names) throws IOException {
+    final JarURLConnection connection = (JarURLConnection) url
+        .openConnection();
+    connection.setUseCaches(false);
+    final JarFile jar = connection.getJarFile();
+    try {
+      final Enumeration<JarEntry> entries = jar.entries();
+      while (entries.hasMoreElements()) {
+        final JarEntry each = entries.nextElement();
+        if (each.getName().startsWith(path + "/")
+            && each.getName().endsWith(CLASS_SUFFIX)) {
+          addIfInterface(jar.getInputStream(each), names);
+        }
+      }
+    } finally {
+      jar.close();
+    }
+  }
+
+  private static void addIfInterface(final InputStream is,
+      final Set<String> names) throws IOException {
+    try {
+      final ClassReader reader = new ClassReader(is);
+      if ((reader.getAccess() & Opcodes.ACC_INTERFACE) != 0) {
+        names.add(reader.getClassName().replace('/', '.'));
+      }
+    } finally {
+      is.close();
+    }
+  }
+
+  private static Class<?> load(final ClassLoader loader, final String name) {
+    try {
+      return Class.forName(name, false, loader);
+    } catch (final ClassNotFoundException e) {
+      return null;
+    } catch (final LinkageError e) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,114 @@
+package org.pitest.quickbuilder.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * Thread safe registry of builder classes.
+ *
+ * Each class is created at most once per builder interface. Threads
+ * requesting a class while it is being created wait for the in flight
+ * creation to complete, once created lookups do not lock.
+ *
+ * Classes are associated with their interface through a ClassValue and are
+ * defined so that they can be garbage collected along with the interfaces that
+ * declared them.
+ */
+class BuilderRegistry {
+
+  private final ClassDefiner definer;
+
+  private final ClassValue<AtomicReference<Future<Class<?>>>> classes = new ClassValue<AtomicReference<Future<Class<?>>>>() {
+    @Override
+    protected AtomicReference<Future<Class<?>>> computeValue(
+        final Class<?> type) {
+      return new AtomicReference<Future<Class<?>>>();
+    }
+  };
+
+  BuilderRegistry() {
+    this(ClassDefiner.preferred());
+  }
+
+  BuilderRegistry(final ClassDefiner definer) {
+    this.definer = definer;
+  }
+
+  ClassDefiner definer() {
+    return this.definer;
+  }
+
+  /**
+   * Returns the class for the builder interface, creating it with the
+   * supplied callable if it has not been created by an earlier call. If
+   * creation fails the error is reported to all waiting threads and creation
+   * will be retried on the next call.
+   *
+   * @param builder The builder interface
+   * @param maker Creates the class
+   * @return The class
+   * @throws Exception if the class could not be created
+   */
+  Class<?> findOrCreate(final Class<?> builder, final Callable<Class<?>> maker)
+      throws Exception {
+    final AtomicReference<Future<Class<?>>> slot = this.classes.get(builder);
+    Future<Class<?>> f = slot.get();
+    while (f == null) {
+      final FutureTask<Class<?>> task = new FutureTask<Class<?>>(maker);
+      if (slot.compareAndSet(null, task)) {
+        task.run();
+      }
+      f = slot.get();
+    }
+
+    try {
+      return f.get();
+    } catch (final ExecutionException e) {
+      slot.compareAndSet(f, null);
+      throw unwrap(e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new QuickBuilderError("Interrupted while waiting for "
+          + builder.getName(), e);
+    }
+  }
+
+  /**
+   * Defines a generated class for the builder interface.
+   *
+   * @param builder The builder interface
+   * @param name Binary name of the class
+   * @param bytes Class bytes
+   * @return The defined class
+   */
+  Class<?> define(final Class<?> builder, final String name, final byte[] bytes) {
+    return this.definer.define(builder, name, bytes);
+  }
+
+  /**
+   * Forgets the class created for the builder interface, allowing it to be
+   * unloaded once no instances remain.
+   *
+   * @param builder The builder interface
+   */
+  void evict(final Class<?> builder) {
+    this.classes.remove(builder);
+  }
+
+  private static Exception unwrap(final ExecutionException e) {
+    final Throwable cause = e.getCause();
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    if (cause instanceof Exception) {
+      return (Exception) cause;
+    }
+    return e;
+  }
+
+}
@@ -0,0 +1,73 @@
+package org.pitest.quickbuilder.internal;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.objectweb.asm.Type;
+
+/**
+ * Reflective information about a built type, computed once per type and
+ * shared by every builder interface that builds it.
+ *
+ * Setters are indexed by name and descriptor, so resolving the setter for a
+ * property does not rescan the methods of the type.
+ */
+final class BuiltTypeModel {
+
+  private static final ClassValue<BuiltTypeModel> MODELS = new ClassValue<BuiltTypeModel>() {
+    @Override
+    protected BuiltTypeModel computeValue(final Class<?> type) {
+      return new BuiltTypeModel(type);
+    }
+  };
+
+  private final Map<String, Setter> setters = new HashMap<String, Setter>();
+  private final Exception           noDefaultConstructor;
+
+  private BuiltTypeModel(final Class<?> type) {
+    for (final Method m : type.getMethods()) {
+      if (m.getName().startsWith("set") && m.getReturnType().equals(Void.TYPE)
+          && (m.getParameterTypes().length == 1)) {
+        final Type param = Type.getArgumentTypes(m)[0];
+        this.setters.put(key(m.getName(), param), new Setter(m.getName(),
+            param));
+      }
+    }
+    this.noDefaultConstructor = findDefaultConstructorProblem(type);
+  }
+
+  static BuiltTypeModel of(final Class<?> type) {
+    return MODELS.get(type);
+  }
+
+  /**
+   * @param property Name of the property
+   * @param type Type of the property
+   * @return The setter, or null if the type has no matching setter
+   */
+  Setter setter(final String property, final Type type) {
+    return this.setters.get(key("set" + property, type));
+  }
+
+  /**
+   * @return Why the no args constructor cannot be used, or null if it can be
+   */
+  Exception noDefaultConstructor() {
+    return this.noDefaultConstructor;
+  }
+
+  private static String key(final String name, final Type type) {
+    return name + type.getDescriptor();
+  }
+
+  private static Exception findDefaultConstructorProblem(final Class<?> type) {
+    try {
+      type.getConstructor();
+      return null;
+    } catch (final NoSuchMethodException e) {
+      return e;
+    }
+  }
+
+}
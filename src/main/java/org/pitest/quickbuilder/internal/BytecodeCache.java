@@ -0,0 +1,251 @@
+package org.pitest.quickbuilder.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.pitest.quickbuilder.CacheStatistics;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * Opt in, on disk cache of generated builder classes.
+ *
+ * Entries are keyed by a fingerprint of the builder interface, the public
+ * surface of the built type and the QuickBuilder version, so a cached class is
+ * only reused if it would be generated identically. The cache is enabled by
+ * setting the quickbuilder.cache.dir system property to a writable directory.
+ *
+ * Failure to read or write the cache is never fatal - the class is simply
+ * generated as normal.
+ */
+public class BytecodeCache {
+
+  public static final String CACHE_DIR_PROPERTY = "quickbuilder.cache.dir";
+
+  /**
+   * Must be incremented whenever a change is made to the generated bytecode
+   */
+  static final int           FORMAT             = 10;
+
+  private static final int   MAGIC              = 0x51424331;
+
+  private final File         dir;
+  private final AtomicLong   hits               = new AtomicLong();
+  private final AtomicLong   misses             = new AtomicLong();
+  private final AtomicLong   invalidations      = new AtomicLong();
+
+  public BytecodeCache(final File dir) {
+    this.dir = dir;
+  }
+
+  public static BytecodeCache fromSystemProperties() {
+    final String dir = System.getProperty(CACHE_DIR_PROPERTY);
+    if (dir == null || dir.trim().length() == 0) {
+      return new BytecodeCache(null);
+    }
+    return new BytecodeCache(new File(dir));
+  }
+
+  public boolean isEnabled() {
+    return this.dir != null;
+  }
+
+  /**
+   * Returns the cached bytes for the named class if an entry with a matching
+   * fingerprint exists, otherwise null.
+   *
+   * @param className Binary name of the generated class
+   * @param fingerprint Fingerprint of the inputs the class was generated from
+   * @return cached bytes or null
+   */
+  public byte[] load(final String className, final String fingerprint) {
+    if (!isEnabled()) {
+      return null;
+    }
+
+    final File entry = entryFor(className);
+    if (!entry.isFile()) {
+      this.misses.incrementAndGet();
+      return null;
+    }
+
+    try {
+      final byte[] bytes = read(entry, fingerprint);
+      if (bytes != null) {
+        this.hits.incrementAndGet();
+        return bytes;
+      }
+    } catch (final IOException ex) {
+      // treat unreadable entries as stale
+    }
+
+    this.invalidations.incrementAndGet();
+    this.misses.incrementAndGet();
+    entry.delete();
+    return null;
+  }
+
+  /**
+   * Stores bytes for the named class. The entry is written to a temporary
+   * file and then renamed so that concurrent jvms sharing a cache never see a
+   * partially written entry.
+   *
+   * @param className Binary name of the generated class
+   * @param fingerprint Fingerprint of the inputs the class was generated from
+   * @param bytes Class bytes
+   */
+  public void store(final String className, final String fingerprint,
+      final byte[] bytes) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    File temp = null;
+    try {
+      this.dir.mkdirs();
+      temp = File.createTempFile(className, ".tmp", this.dir);
+      write(temp, fingerprint, bytes);
+      final File entry = entryFor(className);
+      if (!temp.renameTo(entry)) {
+        entry.delete();
+        temp.renameTo(entry);
+      }
+    } catch (final IOException ex) {
+      // caching is best effort only
+    } finally {
+      if (temp != null) {
+        temp.delete();
+      }
+    }
+  }
+
+  public CacheStatistics statistics() {
+    return new CacheStatistics(this.hits.get(), this.misses.get(),
+        this.invalidations.get());
+  }
+
+  /**
+   * Calculates a fingerprint from the parts of the builder interface and built
+   * type that affect the generated class.
+   *
+   * @param builder The builder interface
+   * @param builtType The type built by the interface
+   * @param variant Identifies the form of the generated class
+   * @return A hex encoded fingerprint
+   */
+  public static String fingerprint(final Class<?> builder,
+      final Class<?> builtType, final String variant) {
+    final List<String> parts = new ArrayList<String>();
+    parts.add(version());
+    parts.add(variant);
+    parts.add(builder.getName());
+    for (final Type each : builder.getGenericInterfaces()) {
+      parts.add(each.toString());
+    }
+    parts.addAll(sortedSignatures(builder.getMethods()));
+
+    parts.add(builtType.getName());
+    final List<String> cons = new ArrayList<String>();
+    for (final Constructor<?> each : builtType.getConstructors()) {
+      cons.add(each.toGenericString());
+    }
+    Collections.sort(cons);
+    parts.addAll(cons);
+    parts.addAll(sortedSignatures(builtType.getMethods()));
+
+    return sha1(parts);
+  }
+
+  static String version() {
+    final Package p = BytecodeCache.class.getPackage();
+    final String v = p != null ? p.getImplementationVersion() : null;
+    return (v != null ? v : "development") + "#" + FORMAT;
+  }
+
+  private static List<String> sortedSignatures(final Method[] methods) {
+    final List<String> sigs = new ArrayList<String>();
+    for (final Method each : methods) {
+      sigs.add(each.toGenericString());
+    }
+    Collections.sort(sigs);
+    return sigs;
+  }
+
+  private static String sha1(final List<String> parts) {
+    try {
+      final MessageDigest md = MessageDigest.getInstance("SHA-1");
+      for (final String each : parts) {
+        md.update(each.getBytes("UTF-8"));
+        md.update((byte) 0);
+      }
+      return toHex(md.digest());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new QuickBuilderError(e);
+    } catch (final IOException e) {
+      throw new QuickBuilderError(e);
+    }
+  }
+
+  private static String toHex(final byte[] bs) {
+    final StringBuilder sb = new StringBuilder(bs.length * 2);
+    for (final byte each : bs) {
+      sb.append(Character.forDigit((each >> 4) & 0xf, 16));
+      sb.append(Character.forDigit(each & 0xf, 16));
+    }
+    return sb.toString();
+  }
+
+  private File entryFor(final String className) {
+    return new File(this.dir, className.replace('/', '.') + ".qbc");
+  }
+
+  private static byte[] read(final File entry, final String fingerprint)
+      throws IOException {
+    final InputStream is = new FileInputStream(entry);
+    try {
+      final DataInputStream in = new DataInputStream(is);
+      if ((in.readInt() != MAGIC) || !in.readUTF().equals(fingerprint)) {
+        return null;
+      }
+      final int length = in.readInt();
+      if (length < 0) {
+        return null;
+      }
+      final byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return bytes;
+    } finally {
+      is.close();
+    }
+  }
+
+  private static void write(final File file, final String fingerprint,
+      final byte[] bytes) throws IOException {
+    final OutputStream os = new FileOutputStream(file);
+    try {
+      final DataOutputStream out = new DataOutputStream(os);
+      out.writeInt(MAGIC);
+      out.writeUTF(fingerprint);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+      out.flush();
+    } finally {
+      os.close();
+    }
+  }
+
+}
@@ -0,0 +1,66 @@
+package org.pitest.quickbuilder.internal;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Strategy for defining generated builder classes in the jvm.
+ *
+ * The preferred definer is chosen at runtime. Hidden classes are used where
+ * the jvm supports them, otherwise each class is defined in its own loader.
+ * The choice can be overridden by setting the quickbuilder.backend system
+ * property to "loader" or "hidden".
+ */
+abstract class ClassDefiner {
+
+  static final String BACKEND_PROPERTY = "quickbuilder.backend";
+
+  /**
+   * @return The definer best suited to the running jvm
+   */
+  static ClassDefiner preferred() {
+    final String backend = System.getProperty(BACKEND_PROPERTY);
+    if (LoaderDefiner.NAME.equals(backend)) {
+      return new LoaderDefiner();
+    }
+    if (HiddenClassDefiner.isAvailable()) {
+      return new HiddenClassDefiner();
+    }
+    return new LoaderDefiner();
+  }
+
+  /**
+   * Defines a generated class for a builder interface.
+   *
+   * @param builder The builder interface
+   * @param name Binary name of the class
+   * @param bytes Class bytes
+   * @return The defined class
+   */
+  abstract Class<?> define(Class<?> builder, String name, byte[] bytes);
+
+  /**
+   * @param builder A builder interface
+   * @return true if classes defined by this definer can implement the
+   *         interface
+   */
+  abstract boolean canImplement(Class<?> builder);
+
+  /**
+   * @return The class file version to generate
+   */
+  abstract int classVersion();
+
+  /**
+   * @return Name of the definer, classes generated for different definers
+   *         are not interchangeable
+   */
+  abstract String name();
+
+  /**
+   * @return true if stack map frames must be generated
+   */
+  boolean computeFrames() {
+    return classVersion() >= Opcodes.V1_7;
+  }
+
+}
@@ -0,0 +1,62 @@
+package org.pitest.quickbuilder.internal;
+
+import java.lang.invoke.MethodHandle;
+
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.BuilderFactory;
+import org.pitest.quickbuilder.Generator;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * Factory for a generated builder class. Holds a method handle to the
+ * generated constructor so no reflection is performed when builders are
+ * created.
+ */
+class GeneratedBuilderFactory<T, B extends Builder<T>> implements
+    BuilderFactory<T, B> {
+
+  private final MethodHandle constructor;
+  private final Class<?>     builtType;
+  private final Exception    noDefaultConstructor;
+
+  GeneratedBuilderFactory(final MethodHandle constructor,
+      final Class<?> builtType, final Exception noDefaultConstructor) {
+    this.constructor = constructor;
+    this.builtType = builtType;
+    this.noDefaultConstructor = noDefaultConstructor;
+  }
+
+  @Override
+  public B newBuilder() {
+    if (this.noDefaultConstructor != null) {
+      throw new QuickBuilderError(
+          "Cannot create builder classes for type "
+              + this.builtType
+              + "unaided. \nClass must have an accessible no args constructor or provide a generator to construct.",
+          this.noDefaultConstructor);
+    }
+    return create(null);
+  }
+
+  @Override
+  public B newBuilder(final Generator<B, T> seed) {
+    if (seed == null) {
+      return newBuilder();
+    }
+    return create(seed);
+  }
+
+  @SuppressWarnings("unchecked")
+  private B create(final Generator<B, T> seed) {
+    try {
+      return (B) (Object) this.constructor.invokeExact((Generator<?, ?>) seed);
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new QuickBuilderError("Unexpected error", new Exception(e));
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+package org.pitest.quickbuilder.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.objectweb.asm.Opcodes;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * Defines builders as hidden classes in the package of the builder interface
+ * (jdk 15 and above).
+ *
+ * Hidden classes need no custom loader, are verified using the generated
+ * stack map frames, can be unloaded individually and may implement non public
+ * interfaces. A hidden class can only be defined with full privilege access to
+ * the package, so interfaces from other modules (including the unnamed modules
+ * of other loaders) are defined in a loader instead. The jdk api is called
+ * reflectively so that QuickBuilder still runs on older jvms.
+ */
+class HiddenClassDefiner extends ClassDefiner {
+
+  static final String         NAME = "hidden";
+
+  private static final Method GET_MODULE;
+  private static final Method PRIVATE_LOOKUP_IN;
+  private static final Method DEFINE_HIDDEN_CLASS;
+  private static final Object NO_OPTIONS;
+
+  static {
+    Method getModule = null;
+    Method privateLookupIn = null;
+    Method defineHiddenClass = null;
+    Object noOptions = null;
+    try {
+      final Class<?> options = Class
+          .forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+      noOptions = Array.newInstance(options, 0);
+      getModule = Class.class.getMethod("getModule");
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn",
+          Class.class, Lookup.class);
+      defineHiddenClass = Lookup.class.getMethod("defineHiddenClass",
+          byte[].class, boolean.class, noOptions.getClass());
+    } catch (final Exception e) {
+      getModule = null;
+      privateLookupIn = null;
+      defineHiddenClass = null;
+    }
+    GET_MODULE = getModule;
+    PRIVATE_LOOKUP_IN = privateLookupIn;
+    DEFINE_HIDDEN_CLASS = defineHiddenClass;
+    NO_OPTIONS = noOptions;
+  }
+
+  static boolean isAvailable() {
+    return DEFINE_HIDDEN_CLASS != null;
+  }
+
+  @Override
+  Class<?> define(final Class<?> builder, final String name, final byte[] bytes) {
+    if (!isInOwnModule(builder)) {
+      return new LoaderDefiner().define(builder, name, bytes);
+    }
+
+    final Lookup lookup;
+    try {
+      lookup = (Lookup) PRIVATE_LOOKUP_IN.invoke(null, builder,
+          MethodHandles.lookup());
+    } catch (final InvocationTargetException e) {
+      // package not open to QuickBuilder, define in a loader instead
+      return new LoaderDefiner().define(builder, name, bytes);
+    } catch (final IllegalAccessException e) {
+      throw new QuickBuilderError(e);
+    }
+
+    try {
+      return ((Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true,
+          NO_OPTIONS)).lookupClass();
+    } catch (final InvocationTargetException e) {
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new QuickBuilderError("Could not define " + name, e);
+    } catch (final IllegalAccessException e) {
+      throw new QuickBuilderError(e);
+    }
+  }
+
+  @Override
+  boolean canImplement(final Class<?> builder) {
+    return Modifier.isPublic(builder.getModifiers()) || isInOwnModule(builder);
+  }
+
+  @Override
+  int classVersion() {
+    return Opcodes.V1_8;
+  }
+
+  @Override
+  String name() {
+    return NAME;
+  }
+
+  private static boolean isInOwnModule(final Class<?> builder) {
+    try {
+      return GET_MODULE.invoke(builder) == GET_MODULE
+          .invoke(HiddenClassDefiner.class);
+    } catch (final Exception e) {
+      throw new QuickBuilderError(e);
+    }
+  }
+
+}
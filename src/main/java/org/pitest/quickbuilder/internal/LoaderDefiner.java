@@ -0,0 +1,36 @@
+package org.pitest.quickbuilder.internal;
+
+import java.lang.reflect.Modifier;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Defines each builder class in its own {@link QBLoader} parented to the
+ * interface's loader. As the class lives in a different runtime package to
+ * the interface, only public interfaces can be implemented.
+ */
+class LoaderDefiner extends ClassDefiner {
+
+  static final String NAME = "loader";
+
+  @Override
+  Class<?> define(final Class<?> builder, final String name, final byte[] bytes) {
+    return new QBLoader(builder.getClassLoader()).createClass(bytes, name);
+  }
+
+  @Override
+  boolean canImplement(final Class<?> builder) {
+    return Modifier.isPublic(builder.getModifiers());
+  }
+
+  @Override
+  int classVersion() {
+    return Opcodes.V1_5;
+  }
+
+  @Override
+  String name() {
+    return NAME;
+  }
+
+}
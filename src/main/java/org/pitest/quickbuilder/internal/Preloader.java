@@ -0,0 +1,112 @@
+package org.pitest.quickbuilder.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.pitest.quickbuilder.PreloadReport;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+/**
+ * Generates builder classes for many interfaces concurrently.
+ *
+ * Factories are created through {@link BuilderFactories}, so once preloaded an
+ * interface costs only a lookup when builders are requested.
+ */
+public class Preloader {
+
+  /**
+   * Creates factories for each of the supplied interfaces using a fork join
+   * pool sized to the number of available processors. Errors are recorded in
+   * the report rather than thrown.
+   *
+   * @param builders Builder interfaces
+   * @return Report of generation times and failures
+   */
+  public static PreloadReport preload(final Collection<Class<?>> builders) {
+    final Map<Class<?>, Long> times = new ConcurrentHashMap<Class<?>, Long>();
+    final Map<Class<?>, QuickBuilderError> failures = new ConcurrentHashMap<Class<?>, QuickBuilderError>();
+
+    final List<PreloadTask> tasks = new ArrayList<PreloadTask>();
+    for (final Class<?> each : builders) {
+      tasks.add(new PreloadTask(each, times, failures));
+    }
+
+    final long start = System.nanoTime();
+    final ForkJoinPool pool = new ForkJoinPool();
+    try {
+      pool.invoke(new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+          invokeAll(tasks);
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    final long elapsed = System.nanoTime() - start;
+
+    return new PreloadReport(inOrder(builders, times), inOrder(builders,
+        failures), elapsed);
+  }
+
+  private static <V> Map<Class<?>, V> inOrder(
+      final Collection<Class<?>> builders, final Map<Class<?>, V> values) {
+    final Map<Class<?>, V> ordered = new LinkedHashMap<Class<?>, V>();
+    for (final Class<?> each : builders) {
+      if (values.containsKey(each)) {
+        ordered.put(each, values.get(each));
+      }
+    }
+    return ordered;
+  }
+
+  private static class PreloadTask extends RecursiveAction {
+
+    private static final long                      serialVersionUID = 1L;
+
+    private final Class<?>                         builder;
+    private final Map<Class<?>, Long>              times;
+    private final Map<Class<?>, QuickBuilderError> failures;
+
+    PreloadTask(final Class<?> builder, final Map<Class<?>, Long> times,
+        final Map<Class<?>, QuickBuilderError> failures) {
+      this.builder = builder;
+      this.times = times;
+      this.failures = failures;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    protected void compute() {
+      final long start = System.nanoTime();
+      try {
+        BuilderFactories.factoryFor((Class) this.builder);
+        this.times.put(this.builder, System.nanoTime() - start);
+      } catch (final QuickBuilderError e) {
+        this.failures.put(this.builder, e);
+      } catch (final RuntimeException e) {
+        this.failures.put(this.builder, failure(e));
+      } catch (final LinkageError e) {
+        this.failures.put(this.builder, failure(e));
+      }
+    }
+
+    // a bad interface must not abort the preload of the others
+    private QuickBuilderError failure(final Throwable cause) {
+      final QuickBuilderError e = new QuickBuilderError("Unable to preload "
+          + this.builder.getName());
+      e.initCause(cause);
+      return e;
+    }
+
+  }
+
+}
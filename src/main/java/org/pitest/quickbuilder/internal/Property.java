@@ -48,10 +48,18 @@ class Property {
     return this.setter;
   }
 
+  int size() {
+    return this.type.getSize();
+  }
+
   public int loadIns() {
     return this.type.getOpcode(Opcodes.ILOAD);
   }
 
+  int storeIns() {
+    return this.type.getOpcode(Opcodes.ISTORE);
+  }
+
   public int returnOp() {
     return this.type.getOpcode(Opcodes.IRETURN);
   }
@@ -72,6 +80,10 @@ class Property {
     this.setter = null;
   }
 
+  boolean isPrimitive() {
+    return (getSort() != Type.OBJECT) && (getSort() != Type.ARRAY);
+  }
+
   public int getSort() {
     return this.type.getSort();
   }
@@ -1,14 +1,28 @@
 package org.pitest.quickbuilder.internal;
 
+/**
+ * Loader for a generated builder class. Classes belonging to QuickBuilder are
+ * always resolved from QuickBuilder's own loader, everything else is resolved
+ * from the loader of the builder interface.
+ */
 public class QBLoader extends ClassLoader {
 
+  private static final String      QUICKBUILDER_PACKAGE = "org.pitest.quickbuilder.";
+  private static final ClassLoader QUICKBUILDER_LOADER  = QBLoader.class
+                                                            .getClassLoader();
+
   public QBLoader(final ClassLoader parent) {
     super(parent);
   }
 
   @Override
-  public Class<?> findClass(final String name) {
-    return findLoadedClass(name);
+  protected Class<?> loadClass(final String name, final boolean resolve)
+      throws ClassNotFoundException {
+    if (name.startsWith(QUICKBUILDER_PACKAGE)
+        && (QUICKBUILDER_LOADER != getParent())) {
+      return QUICKBUILDER_LOADER.loadClass(name);
+    }
+    return super.loadClass(name, resolve);
   }
 
   public Class<?> createClass(final byte[] b, final String name) {
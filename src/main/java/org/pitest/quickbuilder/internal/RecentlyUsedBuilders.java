@@ -0,0 +1,92 @@
+package org.pitest.quickbuilder.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the most recently used builder interfaces, evicting the least
+ * recently used when more than the maximum are in use.
+ *
+ * Each interface is stamped with the time it was last used through a
+ * ClassValue, so recording a use takes no lock. Interfaces are only weakly
+ * referenced, so they and their class loaders can still be unloaded, and the
+ * interfaces in use are only scanned when a new one takes the total over the
+ * maximum.
+ */
+abstract class RecentlyUsedBuilders {
+
+  private final int           max;
+  private final AtomicLong    clock        = new AtomicLong();
+  private final AtomicInteger size         = new AtomicInteger();
+  private final Set<Use>      uses         = ConcurrentHashMap.newKeySet();
+  private final Object        evictionLock = new Object();
+
+  private final ClassValue<Use> used = new ClassValue<Use>() {
+    @Override
+    protected Use computeValue(final Class<?> type) {
+      final Use use = new Use(type);
+      RecentlyUsedBuilders.this.uses.add(use);
+      RecentlyUsedBuilders.this.size.incrementAndGet();
+      return use;
+    }
+  };
+
+  RecentlyUsedBuilders(final int max) {
+    this.max = max;
+  }
+
+  void touch(final Class<?> builder) {
+    this.used.get(builder).lastUsed = this.clock.incrementAndGet();
+    if (this.size.get() > this.max) {
+      evictLeastRecentlyUsed();
+    }
+  }
+
+  /**
+   * Called when a builder interface falls out of the most recently used set
+   *
+   * @param builder The evicted interface
+   */
+  abstract void evict(Class<?> builder);
+
+  private void evictLeastRecentlyUsed() {
+    synchronized (this.evictionLock) {
+      while (this.size.get() > this.max) {
+        Use eldest = null;
+        for (final Use each : this.uses) {
+          if (each.builder.get() == null) {
+            forget(each);
+          } else if ((eldest == null) || (each.lastUsed < eldest.lastUsed)) {
+            eldest = each;
+          }
+        }
+        final Class<?> builder = (eldest != null) ? eldest.builder.get()
+            : null;
+        if ((builder != null) && (this.size.get() > this.max)) {
+          forget(eldest);
+          this.used.remove(builder);
+          evict(builder);
+        }
+      }
+    }
+  }
+
+  private void forget(final Use use) {
+    if (this.uses.remove(use)) {
+      this.size.decrementAndGet();
+    }
+  }
+
+  private static final class Use {
+    private final WeakReference<Class<?>> builder;
+    private volatile long                 lastUsed;
+
+    Use(final Class<?> builder) {
+      this.builder = new WeakReference<Class<?>>(builder);
+    }
+  }
+
+}
@@ -1,6 +1,8 @@
 package org.pitest.quickbuilder.internal;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -9,10 +11,16 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.objectweb.asm.Type;
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.BuilderFactory;
+import org.pitest.quickbuilder.CacheStatistics;
+import org.pitest.quickbuilder.DoubleBuilder;
 import org.pitest.quickbuilder.Generator;
+import org.pitest.quickbuilder.IntBuilder;
+import org.pitest.quickbuilder.LongBuilder;
 import org.pitest.quickbuilder.Maybe;
 import org.pitest.quickbuilder.QuickBuilderError;
 import org.pitest.quickbuilder.SequenceBuilder;
@@ -21,34 +29,88 @@ import com.googlecode.gentyref.GenericTypeReflector;
 
 public class TypeScanner<T, B extends Builder<T>> {
 
-  private static final String   USER_PROPERTY_PREFIX = "_";
+  private static final String          USER_PROPERTY_PREFIX = "_";
+  private static final String          COPY_METHOD          = "copy";
+  private static final String          BUILDER_SUFFIX       = "__quickbuilder__";
+  private static final String          MUTABLE_SUFFIX       = "__quickbuilder_mutable__";
 
-  private final static QBLoader cl                   = new QBLoader(
-                                                         TypeScanner.class
-                                                             .getClassLoader());
+  private final static BuilderRegistry defaultRegistry      = new BuilderRegistry();
+  private final static BuilderRegistry mutableRegistry      = new BuilderRegistry();
 
-  private final Class<B>        builder;
-  private final Generator<B, T> g;
+  private final static BytecodeCache   cache                = BytecodeCache
+                                                                .fromSystemProperties();
+
+  // type built by concrete builder types used as property parameters, held
+  // in an array as the type may not be resolvable
+  private static final ClassValue<java.lang.reflect.Type[]> BUILT_BY = new ClassValue<java.lang.reflect.Type[]>() {
+    @Override
+    protected java.lang.reflect.Type[] computeValue(final Class<?> type) {
+      return new java.lang.reflect.Type[] { GenericTypeReflector
+          .getTypeParameter(type, Builder.class.getTypeParameters()[0]) };
+    }
+  };
+
+  private final Class<B>               builder;
+  private final Generator<B, T>        g;
+  private final BuilderRegistry        registry;
+  private final boolean                mutable;
 
   public TypeScanner(final Class<B> builder, final Generator<B, T> g) {
+    this(builder, g, false);
+  }
+
+  /**
+   * @param builder The builder interface
+   * @param g Seed generator, may be null
+   * @param mutable true to implement the interface with a builder whose with
+   *          methods update it in place
+   */
+  public TypeScanner(final Class<B> builder, final Generator<B, T> g,
+      final boolean mutable) {
+    this(builder, g, mutable ? mutableRegistry : defaultRegistry, mutable);
+  }
+
+  TypeScanner(final Class<B> builder, final Generator<B, T> g,
+      final BuilderRegistry registry) {
+    this(builder, g, registry, false);
+  }
+
+  TypeScanner(final Class<B> builder, final Generator<B, T> g,
+      final BuilderRegistry registry, final boolean mutable) {
     this.builder = builder;
     this.g = g;
+    this.registry = registry;
+    this.mutable = mutable;
   }
 
-  @SuppressWarnings("unchecked")
   public B builder() {
+    return factory().newBuilder(this.g);
+  }
 
-    checkSuppliedInterface();
+  /**
+   * Finds or creates the builder class for the supplied interface and returns
+   * a factory for instances of it.
+   * 
+   * @return A factory for builders
+   */
+  public BuilderFactory<T, B> factory() {
+
+    checkSuppliedInterface(this.registry.definer());
 
     final String proxiedName = this.builder.getName().replace(".", "/");
-    final String builderName = proxiedName + "__quickbuilder__";
+    final String builderName = proxiedName + suffix();
 
     try {
       final Class<B> builderClass = findOrMakeBuilder(proxiedName, builderName);
-      final Constructor<B> c = builderClass
-          .getDeclaredConstructor(Generator.class);
-      final B b = c.newInstance(this.pickGenerator());
-      return b;
+      final MethodHandle c = MethodHandles
+          .publicLookup()
+          .findConstructor(builderClass,
+              MethodType.methodType(void.class, Generator.class))
+          .asType(MethodType.methodType(Object.class, Generator.class));
+      final Class<?> builtType = builderClass.getMethod("build")
+          .getReturnType();
+      return new GeneratedBuilderFactory<T, B>(c, builtType, BuiltTypeModel
+          .of(builtType).noDefaultConstructor());
     } catch (final QuickBuilderError e) {
       throw e;
     } catch (final Exception e) {
@@ -57,34 +119,129 @@ public class TypeScanner<T, B extends Builder<T>> {
 
   }
 
-  private void checkSuppliedInterface() {
-    if (!this.builder.isInterface()) {
-      throw new QuickBuilderError("Cannot create a builder from "
-          + this.builder.getName() + " becuase it is not an interface.");
+  /**
+   * Generates the bytes of the builder class for the supplied interface
+   * without defining it.
+   * 
+   * @return bytes of a class named as {@link #builderClassName(Class)}
+   */
+  public byte[] generateClass() {
+    // pregenerated classes are loaded as normal classes, but from the
+    // interface's own package and loader so may implement any interface
+    // visible within that package
+    checkIsInterface();
+    if (!isVisibleInPackage(this.builder)) {
+      throw new QuickBuilderError("Cannot implement the interface "
+          + this.builder.getName() + " because it is private");
+    }
+    final ClassDefiner definer = new LoaderDefiner();
+
+    final String proxiedName = this.builder.getName().replace(".", "/");
+    try {
+      return generate(proxiedName, proxiedName + suffix(),
+          findBuiltType(), definer);
+    } catch (final QuickBuilderError e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new QuickBuilderError("Unexpected error", e);
     }
+  }
 
-    if (!Modifier.isPublic(this.builder.getModifiers())) {
+  /**
+   * @param builder A builder interface
+   * @return The binary name of the class implementing the interface
+   */
+  public static String builderClassName(final Class<?> builder) {
+    return builder.getName() + BUILDER_SUFFIX;
+  }
+
+  private String suffix() {
+    return this.mutable ? MUTABLE_SUFFIX : BUILDER_SUFFIX;
+  }
+
+  private void checkSuppliedInterface(final ClassDefiner definer) {
+    checkIsInterface();
+
+    if (!definer.canImplement(this.builder)) {
       throw new QuickBuilderError("Cannot implement the interface "
           + this.builder.getName() + " because it is not public");
     }
 
   }
 
+  private void checkIsInterface() {
+    if (!this.builder.isInterface()) {
+      throw new QuickBuilderError("Cannot create a builder from "
+          + this.builder.getName() + " becuase it is not an interface.");
+    }
+  }
+
+  private static boolean isVisibleInPackage(final Class<?> type) {
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (Modifier.isPrivate(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @SuppressWarnings("unchecked")
   private Class<B> findOrMakeBuilder(final String proxiedName,
       final String builderName) throws Exception {
-    final Class<B> existingBuilder = (Class<B>) cl.findClass(builderName
-        .replace("/", "."));
-    if (existingBuilder != null) {
-      return existingBuilder;
+    final String className = builderName.replace("/", ".");
+    return (Class<B>) this.registry.findOrCreate(this.builder,
+        new Callable<Class<?>>() {
+          @Override
+          public Class<?> call() throws Exception {
+            // only immutable builders are pregenerated
+            final Class<B> pregenerated = TypeScanner.this.mutable ? null
+                : findPregeneratedBuilder(className);
+            if (pregenerated != null) {
+              return pregenerated;
+            }
+            return makeBuilderClass(proxiedName, builderName);
+          }
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private Class<B> findPregeneratedBuilder(final String className) {
+    try {
+      final Class<?> c = Class.forName(className, false,
+          this.builder.getClassLoader());
+      if (this.builder.isAssignableFrom(c)) {
+        return (Class<B>) c;
+      }
+    } catch (final ClassNotFoundException e) {
+      // not pregenerated
     }
-    return makeBuilderClass(proxiedName, builderName);
+    return null;
   }
 
   @SuppressWarnings("unchecked")
   private Class<B> makeBuilderClass(final String proxiedName,
       final String builderName) throws Exception {
     final Class<T> builtType = findBuiltType();
+    final String className = builderName.replace('/', '.');
+    final ClassDefiner definer = this.registry.definer();
+
+    if (!cache.isEnabled()) {
+      return (Class<B>) this.registry.define(this.builder, className,
+          generate(proxiedName, builderName, builtType, definer));
+    }
+
+    final String fingerprint = BytecodeCache.fingerprint(this.builder,
+        builtType, definer.name());
+    byte[] bytes = cache.load(className, fingerprint);
+    if (bytes == null) {
+      bytes = generate(proxiedName, builderName, builtType, definer);
+      cache.store(className, fingerprint, bytes);
+    }
+    return (Class<B>) this.registry.define(this.builder, className, bytes);
+  }
+
+  private byte[] generate(final String proxiedName, final String builderName,
+      final Class<T> builtType, final ClassDefiner definer) throws Exception {
     final String builtTypeName = builtType.getName().replace(".", "/");
     final List<Property> ps = findDeclaredProperties(builtType);
     final Set<Property> userProperties = findUserHandledProperties(builtType);
@@ -92,9 +249,28 @@ public class TypeScanner<T, B extends Builder<T>> {
     disableSettersForUserHandledProperties(ps, userProperties, builtType);
 
     final BuilderBuilder bb = new BuilderBuilder(builderName, proxiedName,
-        builtTypeName, ps);
+        builtTypeName, ps, definer.classVersion(), definer.computeFrames(),
+        this.builder.getClassLoader(), this.mutable, findCopyReturnTypes());
+
+    return bb.build();
+  }
+
+  /**
+   * Forgets the generated classes for a builder interface so that it may be
+   * unloaded.
+   * 
+   * @param builder The builder interface
+   */
+  static void evict(final Class<?> builder) {
+    defaultRegistry.evict(builder);
+    mutableRegistry.evict(builder);
+  }
 
-    return (Class<B>) cl.createClass(bb.build(), builderName.replace('/', '.'));
+  /**
+   * @return Counters for the on disk bytecode cache
+   */
+  public static CacheStatistics cacheStatistics() {
+    return cache.statistics();
   }
 
   private void disableSettersForUserHandledProperties(final List<Property> ps,
@@ -121,30 +297,6 @@ public class TypeScanner<T, B extends Builder<T>> {
 
   }
 
-  private Generator<B, T> pickGenerator() throws SecurityException,
-      NoSuchMethodException {
-    if (this.g != null) {
-      return this.g;
-    }
-
-    final Class<T> builtType = findBuiltType();
-    Exception ex = null;
-    try {
-      if (Modifier.isPublic(builtType.getConstructor().getModifiers())) {
-        return null;
-      }
-    } catch (final Exception e) {
-      ex = e;
-    }
-
-    throw new QuickBuilderError(
-        "Cannot create builder classes for type "
-            + builtType
-            + "unaided. \nClass must have an accessible no args constructor or provide a generator to construct.",
-        ex);
-
-  }
-
   @SuppressWarnings("unchecked")
   private Class<T> findBuiltType() throws SecurityException,
       NoSuchMethodException {
@@ -156,13 +308,15 @@ public class TypeScanner<T, B extends Builder<T>> {
   private List<Property> findDeclaredProperties(final Class<?> builtType) {
     final List<Property> ps = new ArrayList<Property>();
     for (final Method m : this.builder.getMethods()) {
-      if (isPropertyMethod(m)) {
+      final String[] words = StringUtils.parseCamelCase(m.getName());
+      if (isPropertyMethod(m, words)) {
         checkWithMethod(m);
 
-        final String prefix = extractPrefix(m.getName());
+        final String prefix = words[0];
         final String name = extractName(prefix, m);
         final String owner = m.getDeclaringClass().getName().replace(".", "/");
-        final org.objectweb.asm.Type type = findPropertyType(m);
+        final org.objectweb.asm.Type type = findPropertyType(m, builtType,
+            name);
         final org.objectweb.asm.Type declared = Type
             .getType(findDeclaredType(m));
 
@@ -174,6 +328,24 @@ public class TypeScanner<T, B extends Builder<T>> {
     return ps;
   }
 
+  private List<String> findCopyReturnTypes() {
+    final List<String> ts = new ArrayList<String>();
+    for (final Method m : this.builder.getMethods()) {
+      if (m.getName().equals(COPY_METHOD)
+          && (m.getParameterTypes().length == 0)) {
+        if (!m.getReturnType().isAssignableFrom(this.builder)) {
+          throw new QuickBuilderError(m.getName()
+              + " should declare return type as " + this.builder.getName());
+        }
+        final String t = Type.getInternalName(m.getReturnType());
+        if (!ts.contains(t)) {
+          ts.add(t);
+        }
+      }
+    }
+    return ts;
+  }
+
   private Type findBridgeMethodReturnTypeIfAny(final Method m) {
     final java.lang.reflect.Type rType = m.getGenericReturnType();
     if (rType instanceof TypeVariable) {
@@ -182,17 +354,12 @@ public class TypeScanner<T, B extends Builder<T>> {
     return null;
   }
 
-  private String extractPrefix(final String name) {
-    return StringUtils.parseCamelCase(name)[0];
-  }
-
-  private boolean isPropertyMethod(final Method m) {
-    final String name = m.getName();
-    return (!name.startsWith(USER_PROPERTY_PREFIX)
+  private boolean isPropertyMethod(final Method m, final String[] words) {
+    return (!m.getName().startsWith(USER_PROPERTY_PREFIX)
         && !m.getDeclaringClass().equals(Iterable.class)
         && !m.getDeclaringClass().equals(Builder.class)
-        && !m.getDeclaringClass().equals(SequenceBuilder.class) && (StringUtils
-        .parseCamelCase(name).length > 1));
+        && !m.getDeclaringClass().equals(SequenceBuilder.class)
+        && (words.length > 1));
   }
 
   private void checkWithMethod(final Method m) {
@@ -208,7 +375,8 @@ public class TypeScanner<T, B extends Builder<T>> {
 
   }
 
-  private org.objectweb.asm.Type findPropertyType(final Method m) {
+  private org.objectweb.asm.Type findPropertyType(final Method m,
+      final Class<?> builtType, final String name) {
     final Class<?> paramType = findDeclaredType(m);
     Class<?> t = paramType;
     if (t.equals(Builder.class)) {
@@ -216,17 +384,22 @@ public class TypeScanner<T, B extends Builder<T>> {
           .getGenericParameterTypes()[0];
       t = findPropertyTypeFromGenericInterface(ty, m);
     } else if (Builder.class.isAssignableFrom(t)) {
-      t = findPropertyTypeFromConcreteBuilder(m, paramType);
+      t = findPropertyTypeFromConcreteBuilder(m, paramType, builtType, name);
     }
 
     return Type.getType(t);
   }
 
   private Class<?> findPropertyTypeFromConcreteBuilder(final Method m,
-      final Class<?> paramType) {
-    Class<?> t;
-    t = (Class<?>) GenericTypeReflector.getTypeParameter(paramType,
-        Builder.class.getTypeParameters()[0]);
+      final Class<?> paramType, final Class<?> builtType, final String name) {
+    // primitive builders supply primitive properties when the built type has
+    // a primitive setter, otherwise they build boxed values like any other
+    final Class<?> primitive = findPrimitiveTypeBuiltBy(paramType);
+    if ((primitive != null)
+        && (findSetter(builtType, name, Type.getType(primitive)) != null)) {
+      return primitive;
+    }
+    final Class<?> t = (Class<?>) BUILT_BY.get(paramType)[0];
     if (t == null) {
       throw new QuickBuilderError("Could not determine property type for "
           + m.getName());
@@ -234,6 +407,19 @@ public class TypeScanner<T, B extends Builder<T>> {
     return t;
   }
 
+  private static Class<?> findPrimitiveTypeBuiltBy(final Class<?> paramType) {
+    if (IntBuilder.class.isAssignableFrom(paramType)) {
+      return int.class;
+    }
+    if (LongBuilder.class.isAssignableFrom(paramType)) {
+      return long.class;
+    }
+    if (DoubleBuilder.class.isAssignableFrom(paramType)) {
+      return double.class;
+    }
+    return null;
+  }
+
   private Class<?> findPropertyTypeFromGenericInterface(
       final ParameterizedType ty, final Method m) {
     final java.lang.reflect.Type typeArgument = ty.getActualTypeArguments()[0];
@@ -289,17 +475,7 @@ public class TypeScanner<T, B extends Builder<T>> {
 
   private Setter findSetter(final Class<?> builtType, final String name,
       final org.objectweb.asm.Type type) {
-    for (final Method m : builtType.getMethods()) {
-      if (m.getName().equals("set" + name)
-          && m.getReturnType().equals(Void.TYPE)
-          && (m.getParameterTypes().length == 1)
-          && (Type.getArgumentTypes(m)[0].equals(type))
-          ) {
-        return new Setter("set" + name, type);
-      }
-    }
-
-    return null;
+    return BuiltTypeModel.of(builtType).setter(name, type);
   }
 
   private String extractName(final String prefix, final Method m) {
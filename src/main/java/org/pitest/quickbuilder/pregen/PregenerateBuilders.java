@@ -0,0 +1,186 @@
+package org.pitest.quickbuilder.pregen;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.internal.BuilderInterfaces;
+import org.pitest.quickbuilder.internal.TypeScanner;
+
+/**
+ * Generates builder classes at build time.
+ *
+ * Scans a directory of compiled classes for interfaces extending
+ * {@link Builder} and writes the implementing classes alongside them. At
+ * runtime QuickBuilder will load these classes in preference to generating
+ * them. Any interface that QuickBuilder cannot implement causes generation to
+ * fail, so misconfigured builders are reported by the build rather than by the
+ * first test that uses them.
+ *
+ * Can be run from the command line (or from the exec-maven-plugin during the
+ * process-test-classes phase) with the classes directory and an optional
+ * output directory as arguments. The classes directory and its dependencies
+ * must be on the classpath.
+ */
+public class PregenerateBuilders {
+
+  private static final String CLASS_SUFFIX = ".class";
+
+  private final File          classes;
+  private final File          output;
+  private final ClassLoader   parent;
+
+  public PregenerateBuilders(final File classes, final File output,
+      final ClassLoader parent) {
+    this.classes = classes;
+    this.output = output;
+    this.parent = parent;
+  }
+
+  public static void main(final String[] args) {
+    if ((args.length < 1) || (args.length > 2)) {
+      System.err
+          .println("Usage: PregenerateBuilders <classes dir> [<output dir>]");
+      System.exit(2);
+    }
+
+    final File classes = new File(args[0]);
+    final File output = args.length == 2 ? new File(args[1]) : classes;
+    try {
+      final List<String> generated = new PregenerateBuilders(classes, output,
+          Thread.currentThread().getContextClassLoader()).generate();
+      System.out.println("Generated " + generated.size()
+          + " QuickBuilder classes in " + output);
+    } catch (final QuickBuilderError e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Generates and writes builder classes for every builder interface found.
+   *
+   * @return Names of the generated classes
+   * @throws QuickBuilderError if any interface could not be implemented
+   */
+  public List<String> generate() {
+    final ClassLoader loader = makeLoader();
+    final List<String> generated = new ArrayList<String>();
+    final List<String> failures = new ArrayList<String>();
+
+    for (final String each : findInterfaceNames()) {
+      final Class<?> c = load(loader, each);
+      if ((c == null) || !BuilderInterfaces.isBuilderInterface(c)) {
+        continue;
+      }
+
+      try {
+        write(TypeScanner.builderClassName(c), scannerFor(c).generateClass());
+        generated.add(TypeScanner.builderClassName(c));
+      } catch (final QuickBuilderError e) {
+        failures.add(c.getName() + " : " + e.getMessage());
+      }
+    }
+
+    if (!failures.isEmpty()) {
+      final StringBuilder sb = new StringBuilder(
+          "Could not generate builders for " + failures.size()
+              + " interface(s)");
+      for (final String each : failures) {
+        sb.append("\n  ").append(each);
+      }
+      throw new QuickBuilderError(sb.toString());
+    }
+
+    return generated;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static TypeScanner<?, ?> scannerFor(final Class<?> c) {
+    return new TypeScanner(c, null);
+  }
+
+  private ClassLoader makeLoader() {
+    try {
+      return new URLClassLoader(new URL[] { this.classes.toURI().toURL() },
+          this.parent);
+    } catch (final MalformedURLException e) {
+      throw new QuickBuilderError(e);
+    }
+  }
+
+  private static Class<?> load(final ClassLoader loader, final String name) {
+    try {
+      return Class.forName(name, false, loader);
+    } catch (final ClassNotFoundException e) {
+      return null;
+    } catch (final LinkageError e) {
+      return null;
+    }
+  }
+
+  private List<String> findInterfaceNames() {
+    final List<String> names = new ArrayList<String>();
+    findInterfaceNames(this.classes, names);
+    return names;
+  }
+
+  private void findInterfaceNames(final File dir, final List<String> names) {
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (final File each : files) {
+      if (each.isDirectory()) {
+        findInterfaceNames(each, names);
+      } else if (each.getName().endsWith(CLASS_SUFFIX)) {
+        final ClassReader reader = read(each);
+        if ((reader.getAccess() & Opcodes.ACC_INTERFACE) != 0) {
+          names.add(reader.getClassName().replace('/', '.'));
+        }
+      }
+    }
+  }
+
+  private static ClassReader read(final File file) {
+    try {
+      final InputStream is = new FileInputStream(file);
+      try {
+        return new ClassReader(is);
+      } finally {
+        is.close();
+      }
+    } catch (final IOException e) {
+      throw new QuickBuilderError("Could not read " + file, e);
+    }
+  }
+
+  private void write(final String className, final byte[] bytes) {
+    final File file = new File(this.output, className.replace('.',
+        File.separatorChar) + CLASS_SUFFIX);
+    file.getParentFile().mkdirs();
+    try {
+      final OutputStream os = new FileOutputStream(file);
+      try {
+        os.write(bytes);
+      } finally {
+        os.close();
+      }
+    } catch (final IOException e) {
+      throw new QuickBuilderError("Could not write " + file, e);
+    }
+  }
+
+}
@@ -0,0 +1,24 @@
+package com.example.beans;
+
+public class BoxedCountBean {
+
+  private Integer count;
+  private Integer total;
+
+  public Integer getCount() {
+    return this.count;
+  }
+
+  public void setCount(final Integer count) {
+    this.count = count;
+  }
+
+  public Integer getTotal() {
+    return this.total;
+  }
+
+  public void setTotal(final Integer total) {
+    this.total = total;
+  }
+
+}
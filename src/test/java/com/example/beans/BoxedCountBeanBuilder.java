@@ -0,0 +1,13 @@
+package com.example.beans;
+
+import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.common.IntSequence;
+import org.pitest.quickbuilder.common.Integers;
+
+public interface BoxedCountBeanBuilder extends SequenceBuilder<BoxedCountBean> {
+
+  BoxedCountBeanBuilder withCount(Integers count);
+
+  BoxedCountBeanBuilder withTotal(IntSequence total);
+
+}
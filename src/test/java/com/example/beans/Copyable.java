@@ -0,0 +1,7 @@
+package com.example.beans;
+
+public interface Copyable<B> {
+
+  B copy();
+
+}
@@ -0,0 +1,18 @@
+package com.example.beans;
+
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+public interface CopyableFruitBuilder extends SequenceBuilder<FruitBean> {
+
+  CopyableFruitBuilder withName(String name);
+
+  CopyableFruitBuilder withRipeness(int ripeness);
+
+  CopyableFruitBuilder withId(String id);
+
+  CopyableFruitBuilder withId(Builder<String> ids);
+
+  CopyableFruitBuilder copy();
+
+}
@@ -0,0 +1,10 @@
+package com.example.beans;
+
+import org.pitest.quickbuilder.SequenceBuilder;
+
+public interface InheritedCopyFruitBuilder extends SequenceBuilder<FruitBean>,
+    Copyable<InheritedCopyFruitBuilder> {
+
+  InheritedCopyFruitBuilder withName(String name);
+
+}
@@ -0,0 +1,22 @@
+package com.example.beans.primitives;
+
+import org.pitest.quickbuilder.DoubleBuilder;
+import org.pitest.quickbuilder.IntBuilder;
+import org.pitest.quickbuilder.LongBuilder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+public interface PrimitiveSequenceBeanBuilder extends
+    SequenceBuilder<PrimitiveBean> {
+
+  PrimitiveSequenceBeanBuilder withI(IntBuilder i);
+
+  PrimitiveSequenceBeanBuilder withI(int i);
+
+  PrimitiveSequenceBeanBuilder withL(LongBuilder l);
+
+  PrimitiveSequenceBeanBuilder withD(DoubleBuilder d);
+
+  Maybe<Integer> __I();
+
+}
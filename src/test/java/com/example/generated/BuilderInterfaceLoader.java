@@ -0,0 +1,56 @@
+package com.example.generated;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Defines builder interfaces for StringBean at runtime, so tests can work
+ * with large numbers of interfaces or with interfaces that are not visible to
+ * the application classloader.
+ */
+public class BuilderInterfaceLoader extends ClassLoader {
+
+  public BuilderInterfaceLoader() {
+    super(BuilderInterfaceLoader.class.getClassLoader());
+  }
+
+  public Class<?> makeBuilderInterface(final String simpleName) {
+    final byte[] bytes = builderInterfaceBytes(simpleName);
+    return defineClass("com.example.generated." + simpleName, bytes, 0,
+        bytes.length);
+  }
+
+  /**
+   * Defines a builder interface with a property whose type cannot be loaded.
+   */
+  public Class<?> makeUnlinkableBuilderInterface(final String simpleName) {
+    final byte[] bytes = builderInterfaceBytes(simpleName,
+        "com/example/generated/Missing");
+    return defineClass("com.example.generated." + simpleName, bytes, 0,
+        bytes.length);
+  }
+
+  public static byte[] builderInterfaceBytes(final String simpleName) {
+    return builderInterfaceBytes(simpleName, "java/lang/String");
+  }
+
+  private static byte[] builderInterfaceBytes(final String simpleName,
+      final String propertyType) {
+    final String name = "com/example/generated/" + simpleName;
+    final ClassWriter cw = new ClassWriter(0);
+    cw.visit(
+        Opcodes.V1_5,
+        Opcodes.ACC_PUBLIC + Opcodes.ACC_ABSTRACT + Opcodes.ACC_INTERFACE,
+        name,
+        "Ljava/lang/Object;Lorg/pitest/quickbuilder/Builder<Lcom/example/beans/StringBean;>;",
+        "java/lang/Object", new String[] { "org/pitest/quickbuilder/Builder" });
+    final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC
+        + Opcodes.ACC_ABSTRACT, "withName", "(L" + propertyType + ";)L" + name
+        + ";", null, null);
+    mv.visitEnd();
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+}
@@ -0,0 +1,52 @@
+package org.pitest.quickbuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.builders.QB;
+
+import com.example.beans.FruitBuilder;
+import com.example.immutable.IntegerValue;
+import com.example.immutable.IntegerValueBuilder;
+import com.example.immutable.IntegerValueGenerator;
+
+public class BuilderFactoryTest {
+
+  @Test
+  public void shouldReturnSameFactoryForAnInterface() {
+    assertThat(QB.factory(FruitBuilder.class)).isSameAs(
+        QB.factory(FruitBuilder.class));
+  }
+
+  @Test
+  public void shouldCreateNewBuilderOnEachCall() {
+    final BuilderFactory<?, FruitBuilder> testee = QB
+        .factory(FruitBuilder.class);
+    final FruitBuilder first = testee.newBuilder();
+    assertThat(first).isNotSameAs(testee.newBuilder());
+    assertThat(first.withName("foo").build().getName()).isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldCreateBuildersThatUseSuppliedSeed() {
+    final BuilderFactory<IntegerValue, IntegerValueBuilder> testee = QB
+        .factory(IntegerValueBuilder.class);
+    final IntegerValueBuilder builder = testee
+        .newBuilder(new IntegerValueGenerator());
+    assertThat(builder.withI(42).build().i()).isEqualTo(42);
+  }
+
+  @Test
+  public void shouldErrorWhenNoSeedSuppliedAndBuiltTypeHasNoDefaultConstructor() {
+    final BuilderFactory<IntegerValue, IntegerValueBuilder> testee = QB
+        .factory(IntegerValueBuilder.class);
+    try {
+      testee.newBuilder();
+      fail("expected an exception");
+    } catch (final QuickBuilderError e) {
+      assertThat(e).hasMessageContaining("no args constructor");
+    }
+  }
+
+}
@@ -4,20 +4,29 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.assertj.core.api.Condition;
 import org.junit.Test;
+import org.pitest.quickbuilder.builders.Builders;
 import org.pitest.quickbuilder.builders.QB;
 import org.pitest.quickbuilder.common.ConstantBuilder;
 import org.pitest.quickbuilder.common.ElementSequence;
+import org.pitest.quickbuilder.common.Integers;
 import org.pitest.quickbuilder.common.NonBuilder;
 import org.pitest.quickbuilder.common.Sequences;
 
 import com.example.beans.ArrayBean;
 import com.example.beans.ArrayBeanBuilder;
+import com.example.beans.BoxedCountBean;
+import com.example.beans.BoxedCountBeanBuilder;
 import com.example.beans.ByteArrayBean;
 import com.example.beans.ByteArrayBeanBuilder;
 import com.example.beans.ChildBean;
@@ -53,7 +62,9 @@ import com.example.beans.primitives.IntBean;
 import com.example.beans.primitives.IntBeanBuilder;
 import com.example.beans.primitives.LongBean;
 import com.example.beans.primitives.LongBeanBuilder;
+import com.example.beans.primitives.PrimitiveBean;
 import com.example.beans.primitives.PrimitiveBeanBuilder;
+import com.example.beans.primitives.PrimitiveSequenceBeanBuilder;
 import com.example.beans.primitives.ShortBean;
 import com.example.beans.primitives.ShortBeanBuilder;
 import com.example.example.Apple;
@@ -274,6 +285,113 @@ public class ImmutableBuilderTest {
     assertThat(builder.withD(1).__D().value()).isEqualTo(1);
   }
 
+  @Test
+  public void shouldCarryPrimitiveValuesIntoNextBuilder() {
+    final PrimitiveBeanBuilder builder = QB
+        .builder(PrimitiveBeanBuilder.class).withI(1).withL(2L).withF(3f)
+        .withD(4d).withS((short) 5).withC('6').withB(true)
+        .withBy((byte) 7);
+    final PrimitiveBean actual = builder.next().value().build();
+    assertThat(actual.getI()).isEqualTo(1);
+    assertThat(actual.getL()).isEqualTo(2L);
+    assertThat(actual.getF()).isEqualTo(3f);
+    assertThat(actual.getD()).isEqualTo(4d);
+    assertThat(actual.getS()).isEqualTo((short) 5);
+    assertThat(actual.getC()).isEqualTo('6');
+    assertThat(actual.isB()).isTrue();
+    assertThat(actual.getBy()).isEqualTo((byte) 7);
+  }
+
+  @Test
+  public void shouldSetPrimitivePropertiesFromPrimitiveSequences() {
+    final List<PrimitiveBean> actual = QB
+        .builder(PrimitiveSequenceBeanBuilder.class)
+        .withI(Builders.range(0, 3)).withL(Builders.longsFrom(1L << 40, 1))
+        .withD(Builders.doublesFrom(0.5, 1)).buildAll();
+    assertThat(actual).hasSize(3);
+    assertThat(actual.get(2).getI()).isEqualTo(2);
+    assertThat(actual.get(2).getL()).isEqualTo((1L << 40) + 2);
+    assertThat(actual.get(2).getD()).isEqualTo(2.5);
+  }
+
+  @Test
+  public void shouldBuildBoxedPropertiesFromPrimitiveBuilders() {
+    final List<BoxedCountBean> actual = QB
+        .builder(BoxedCountBeanBuilder.class)
+        .withCount(Integers.integersFrom(3))
+        .withTotal(Builders.range(10, 12)).buildAll();
+    assertThat(actual).hasSize(2);
+    assertThat(actual.get(0).getCount()).isEqualTo(3);
+    assertThat(actual.get(1).getCount()).isEqualTo(4);
+    assertThat(actual.get(1).getTotal()).isEqualTo(11);
+  }
+
+  @Test
+  public void shouldBuildPrimitivePropertiesWithoutBoxing() {
+    final IntBuilder unboxedOnly = new IntBuilder() {
+      @Override
+      public int buildInt() {
+        return 42;
+      }
+
+      @Override
+      public Integer build() {
+        throw new AssertionError("boxed value requested");
+      }
+
+      @Override
+      public Maybe<Builder<Integer>> next() {
+        return Maybe.<Builder<Integer>> some(this);
+      }
+    };
+    final PrimitiveSequenceBeanBuilder builder = QB.builder(
+        PrimitiveSequenceBeanBuilder.class).withI(unboxedOnly);
+    assertThat(builder.build().getI()).isEqualTo(42);
+    assertThat(builder.__I().value()).isEqualTo(42);
+  }
+
+  @Test
+  public void shouldSetPrimitivePropertiesFromSkewedRandomValues() {
+    final List<PrimitiveBean> actual = QB
+        .builder(PrimitiveSequenceBeanBuilder.class)
+        .withI(Builders.randomZipf(1, 10, 1))
+        .withD(Builders.randomGaussians(1, 0, 1)).build(100);
+    for (final PrimitiveBean each : actual) {
+      assertThat(each.getI()).isBetween(1, 10);
+    }
+  }
+
+  @Test
+  public void shouldReplacePrimitiveSequenceWithPlainValue() {
+    final PrimitiveSequenceBeanBuilder builder = QB
+        .builder(PrimitiveSequenceBeanBuilder.class)
+        .withI(Builders.range(0, 3)).withI(7);
+    assertThat(builder.build().getI()).isEqualTo(7);
+  }
+
+  @Test
+  public void shouldReplaceSequenceWithPlainValue() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class)
+        .withId(ElementSequence.from(Arrays.asList("a", "b"))).withId("c");
+    assertThat(builder.limit(3).buildAll()).hasSize(3);
+    assertThat(builder.build().getId()).isEqualTo("c");
+  }
+
+  @Test
+  public void shouldReplacePlainValueWithSequence() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId("c")
+        .withId(ElementSequence.from(Arrays.asList("a", "b")));
+    assertThat(builder.buildAll()).hasSize(2);
+    assertThat(builder.build().getId()).isEqualTo("a");
+  }
+
+  @Test
+  public void shouldSetNullPlainValues() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId(
+        (String) null);
+    assertThat(builder.build().getId()).isNull();
+  }
+
   @Test
   public void shouldConstructImmutableMixedValueTypes() {
     final MixedValueBuilder builder = QB.builder(MixedValueBuilder.class,
@@ -415,35 +533,66 @@ public class ImmutableBuilderTest {
     // fail
   }
 
-  public static abstract class InvalidClass implements Builder<String> {
+  @Test
+  public void shouldThrowPreallocatedErrorWithoutStackTraceForUnsetProperty() {
+    final ABeanBuilderWithUnderScore builder = QB
+        .builder(ABeanBuilderWithUnderScore.class);
+    final NoValueAvailableError first = unsetFooError(builder);
+    assertThat(first.getStackTrace()).isEmpty();
+    assertThat(first).hasMessageContaining(
+        "no value has been set for property Foo");
+    assertThat(unsetFooError(builder)).isSameAs(first);
+  }
 
+  @Test
+  public void shouldReturnNoneForMaybeOfUnsetProperty() {
+    final ABeanBuilderWithMaybeUnderScore builder = QB
+        .builder(ABeanBuilderWithMaybeUnderScore.class);
+    assertThat(builder.__Foo().hasNone()).isTrue();
   }
 
   @Test
-  public void shouldThrowErrorWhenAskedToImplementAClass() {
+  public void shouldReturnNoneForMaybeWhenPropertyBuilderHasNoValue() {
+    final ABeanBuilderWithMaybeUnderScore builder = QB.builder(
+        ABeanBuilderWithMaybeUnderScore.class).withFoo(new Builder<String>() {
+      @Override
+      public String build() {
+        throw new NoValueAvailableError("none");
+      }
+
+      @Override
+      public Maybe<Builder<String>> next() {
+        return Maybe.none();
+      }
+    });
+    assertThat(builder.__Foo().hasNone()).isTrue();
+  }
+
+  private static NoValueAvailableError unsetFooError(
+      final ABeanBuilderWithUnderScore builder) {
     try {
-      QB.builder(InvalidClass.class);
-      fail("expected an exception");
-    } catch (final QuickBuilderError e) {
-      assertThat(e).hasMessageContaining("not an interface");
-      assertThat(e).hasMessageContaining(InvalidClass.class.getName());
+      builder._Foo();
+      fail("expected an error");
+      return null;
+    } catch (final NoValueAvailableError e) {
+      return e;
     }
-
   }
 
-  interface Inaccessible extends Builder<String> {
+  public static abstract class InvalidClass implements Builder<String> {
 
   }
 
   @Test
-  public void shouldThrowErrorWhenAskedToImplementInaccessibleInterface() {
+  public void shouldThrowErrorWhenAskedToImplementAClass() {
     try {
-      QB.builder(Inaccessible.class);
-      fail("expected an error");
+      QB.builder(InvalidClass.class);
+      fail("expected an exception");
     } catch (final QuickBuilderError e) {
-      assertThat(e).hasMessageContaining(
-          "Cannot implement the interface " + Inaccessible.class.getName());
+      assertThat(e).hasMessageContaining("not an interface");
+      assertThat(e).hasMessageContaining(InvalidClass.class.getName());
     }
+
   }
 
   @Test
@@ -459,6 +608,36 @@ public class ImmutableBuilderTest {
     assertThat(builder.next().value().build().getId()).isEqualTo("foo");
   }
 
+  @Test
+  public void shouldReturnItselfAsNextWhenAllPropertiesAreConstant() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId("foo")
+        .withRipeness(2);
+    assertThat(builder.next().value()).isSameAs(builder);
+    assertThat(builder.next()).isSameAs(builder.next());
+  }
+
+  @Test
+  public void shouldTreatConstantBuildersAsConstantValues() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId(
+        ConstantBuilder.constant("foo"));
+    assertThat(builder.next().value()).isSameAs(builder);
+    assertThat(builder.build().getId()).isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldNotTreatSubclassesOfConstantBuilderAsConstants() {
+    final AtomicInteger builds = new AtomicInteger();
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId(
+        new ConstantBuilder<String>("foo") {
+          @Override
+          public String build() {
+            return "foo" + builds.incrementAndGet();
+          }
+        });
+    assertThat(builder.build().getId()).isEqualTo("foo1");
+    assertThat(builder.build().getId()).isEqualTo("foo2");
+  }
+
   @Test
   public void shouldReturnLimitedNextWhenChildrenAreLimited() {
     final FruitBuilder builder = QB.builder(FruitBuilder.class).withId(
@@ -575,6 +754,35 @@ public class ImmutableBuilderTest {
     assertThat(builder.buildAll()).hasSize(12);
   }
   
+  @Test
+  public void shouldStreamGeneratedBuildersInParallel() {
+    final SequenceBuilder<FruitBean> builder = QB.builder(FruitBuilder.class)
+        .withId(Builders.asString(Builders.integersFrom(0))).limit(1000);
+    final List<String> names = builder.stream().parallel()
+        .map(new Function<FruitBean, String>() {
+          @Override
+          public String apply(final FruitBean f) {
+            return f.getId();
+          }
+        }).collect(Collectors.toList());
+    assertThat(names).hasSize(1000).startsWith("0", "1").endsWith("999");
+  }
+
+  @Test
+  public void shouldBuildGeneratedBuildersInBatches() {
+    final SequenceBuilder<FruitBean> builder = QB.builder(FruitBuilder.class)
+        .withId(Builders.asString(Builders.integersFrom(0))).limit(10);
+    final List<String> ids = new ArrayList<String>();
+    builder.forEachBatch(4, new Consumer<List<FruitBean>>() {
+      @Override
+      public void accept(final List<FruitBean> batch) {
+        assertThat(batch.size()).isLessThanOrEqualTo(4);
+        ids.add(batch.get(0).getId());
+      }
+    });
+    assertThat(ids).containsExactly("0", "4", "8");
+  }
+
   @Test
   public void shouldImplementIteratorMethod() {
     final SequenceBuilder<FruitBean> builder = QB.builder(FruitBuilder.class);
@@ -596,6 +804,46 @@ public class ImmutableBuilderTest {
     }
   }
   
+  @Test
+  public void shouldAdvanceEachPropertySequenceOncePerStep() {
+    final AtomicInteger calls = new AtomicInteger();
+    final FruitBuilder builder = QB.builder(FruitBuilder.class).withId(
+        new CountingSequence(calls, 3));
+    builder.next();
+    assertThat(calls.get()).isEqualTo(1);
+
+    calls.set(0);
+    assertThat(builder.buildAll()).hasSize(3);
+    // next is called once after each element, the call after the last one
+    // finding the end, so no extra call is needed
+    assertThat(calls.get()).isEqualTo(3);
+  }
+
+  private static class CountingSequence implements Builder<String> {
+    private final AtomicInteger calls;
+    private final int           remaining;
+
+    CountingSequence(final AtomicInteger calls, final int remaining) {
+      this.calls = calls;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public String build() {
+      return "" + this.remaining;
+    }
+
+    @Override
+    public Maybe<Builder<String>> next() {
+      this.calls.incrementAndGet();
+      if (this.remaining == 1) {
+        return Maybe.none();
+      }
+      return Maybe.<Builder<String>> some(new CountingSequence(this.calls,
+          this.remaining - 1));
+    }
+  }
+
   private Condition<FruitBean> fruitWithId(final String id) {
     return new Condition<FruitBean>() {
       @Override
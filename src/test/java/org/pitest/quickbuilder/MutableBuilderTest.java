@@ -0,0 +1,117 @@
+package org.pitest.quickbuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.builders.QB;
+import org.pitest.quickbuilder.common.ElementSequence;
+
+import com.example.beans.Copyable;
+import com.example.beans.CopyableFruitBuilder;
+import com.example.beans.FruitBean;
+import com.example.beans.InheritedCopyFruitBuilder;
+import com.example.immutable.IntegerValueBuilder;
+import com.example.immutable.IntegerValueGenerator;
+
+public class MutableBuilderTest {
+
+  @Test
+  public void shouldReturnSameBuilderFromWithMethods() {
+    final CopyableFruitBuilder testee = QB
+        .mutableBuilder(CopyableFruitBuilder.class);
+    assertThat(testee.withName("apple")).isSameAs(testee);
+    assertThat(testee.withId(ElementSequence.from(Arrays.asList("a"))))
+        .isSameAs(testee);
+  }
+
+  @Test
+  public void shouldBuildValuesSetInPlace() {
+    final CopyableFruitBuilder testee = QB
+        .mutableBuilder(CopyableFruitBuilder.class);
+    testee.withName("apple");
+    testee.withRipeness(3);
+    final FruitBean actual = testee.build();
+    assertThat(actual.getName()).isEqualTo("apple");
+    assertThat(actual.getRipeness()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldForkIndependentBuilderWithCopy() {
+    final CopyableFruitBuilder original = QB.mutableBuilder(
+        CopyableFruitBuilder.class).withName("apple");
+    final CopyableFruitBuilder copy = original.copy();
+    copy.withName("pear");
+    assertThat(copy).isNotSameAs(original);
+    assertThat(original.build().getName()).isEqualTo("apple");
+    assertThat(copy.build().getName()).isEqualTo("pear");
+  }
+
+  @Test
+  public void shouldReturnSameInstanceFromCopyOfImmutableBuilder() {
+    final CopyableFruitBuilder testee = QB.builder(CopyableFruitBuilder.class);
+    assertThat(testee.copy()).isSameAs(testee);
+  }
+
+  @Test
+  public void shouldImplementCopyInheritedFromGenericInterface() {
+    final Copyable<InheritedCopyFruitBuilder> original = QB.mutableBuilder(
+        InheritedCopyFruitBuilder.class).withName("apple");
+    final InheritedCopyFruitBuilder copy = original.copy();
+    copy.withName("pear");
+    assertThat(copy).isNotSameAs(original);
+    assertThat(copy.build().getName()).isEqualTo("pear");
+  }
+
+  @Test
+  public void shouldImplementInheritedCopyOfImmutableBuilder() {
+    final Copyable<InheritedCopyFruitBuilder> testee = QB
+        .builder(InheritedCopyFruitBuilder.class);
+    assertThat(testee.copy()).isSameAs(testee);
+  }
+
+  @Test
+  public void shouldGenerateSequencesWithoutChangingBuilder() {
+    final CopyableFruitBuilder testee = QB
+        .mutableBuilder(CopyableFruitBuilder.class)
+        .withId(ElementSequence.from(Arrays.asList("a", "b")))
+        .withName("apple");
+    final List<FruitBean> actual = testee.buildAll();
+    assertThat(actual).hasSize(2);
+    assertThat(actual.get(1).getId()).isEqualTo("b");
+    assertThat(actual.get(1).getName()).isEqualTo("apple");
+    assertThat(testee.build().getId()).isEqualTo("a");
+  }
+
+  @Test
+  public void shouldReplaceSequenceWithPlainValue() {
+    final CopyableFruitBuilder testee = QB
+        .mutableBuilder(CopyableFruitBuilder.class)
+        .withId(ElementSequence.from(Arrays.asList("a", "b"))).withId("c");
+    assertThat(testee.build().getId()).isEqualTo("c");
+    assertThat(testee.limit(3).buildAll()).hasSize(3);
+  }
+
+  @Test
+  public void shouldSupportGenerators() {
+    final IntegerValueBuilder testee = QB.mutableBuilder(
+        IntegerValueBuilder.class, new IntegerValueGenerator());
+    testee.withI(42);
+    assertThat(testee.build().i()).isEqualTo(42);
+  }
+
+  @Test
+  public void shouldUseDifferentClassToImmutableBuilder() {
+    assertThat(QB.mutableBuilder(CopyableFruitBuilder.class).getClass())
+        .isNotEqualTo(QB.builder(CopyableFruitBuilder.class).getClass());
+  }
+
+  @Test
+  public void shouldReturnSameMutableFactoryForAnInterface() {
+    assertThat(QB.mutableFactory(CopyableFruitBuilder.class)).isSameAs(
+        QB.mutableFactory(CopyableFruitBuilder.class));
+  }
+
+}
@@ -0,0 +1,61 @@
+package org.pitest.quickbuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.builders.QB;
+
+import com.example.beans.FruitBuilder;
+import com.example.beans.StringBeanBuilder;
+import com.example.beans.misuse.BuilderDeclaringNonExistingProperty;
+import com.example.generated.BuilderInterfaceLoader;
+
+public class PreloadTest {
+
+  @Test
+  public void shouldReportGenerationTimeForEachInterface() {
+    final PreloadReport actual = QB.preload(FruitBuilder.class,
+        StringBeanBuilder.class);
+    assertThat(actual.isSuccessful()).isTrue();
+    assertThat(actual.generationNanos().keySet()).containsExactly(
+        FruitBuilder.class, StringBeanBuilder.class);
+  }
+
+  @Test
+  public void shouldShareFactoriesWithQB() {
+    QB.preload(FruitBuilder.class);
+    final BuilderFactory<?, FruitBuilder> factory = QB
+        .factory(FruitBuilder.class);
+    QB.preload(FruitBuilder.class);
+    assertThat(QB.factory(FruitBuilder.class)).isSameAs(factory);
+  }
+
+  @Test
+  public void shouldReportRatherThanThrowFailures() {
+    final PreloadReport actual = QB.preload(FruitBuilder.class,
+        BuilderDeclaringNonExistingProperty.class);
+    assertThat(actual.isSuccessful()).isFalse();
+    assertThat(actual.generationNanos()).containsKey(FruitBuilder.class);
+    assertThat(actual.failures().get(
+        BuilderDeclaringNonExistingProperty.class)).hasMessageContaining(
+        "No setter found");
+  }
+
+  @Test
+  public void shouldReportInterfacesThatCannotBeLinked() {
+    final Class<?> broken = new BuilderInterfaceLoader()
+        .makeUnlinkableBuilderInterface("UnlinkableBuilder");
+    final PreloadReport actual = QB.preload(FruitBuilder.class, broken);
+    assertThat(actual.generationNanos()).containsKey(FruitBuilder.class);
+    assertThat(actual.failures().get(broken).getCause()).isInstanceOf(
+        LinkageError.class);
+  }
+
+  @Test
+  public void shouldPreloadBuildersInPackage() {
+    final PreloadReport actual = QB.preloadPackage("com.example.beans.misuse");
+    assertThat(actual.failures()).containsKey(
+        BuilderDeclaringNonExistingProperty.class);
+  }
+
+}
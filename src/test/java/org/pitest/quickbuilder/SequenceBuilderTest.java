@@ -0,0 +1,180 @@
+package org.pitest.quickbuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.builders.Builders;
+
+public class SequenceBuilderTest {
+
+  @Test
+  public void shouldPassEachValueToAction() {
+    final List<Integer> actual = new ArrayList<Integer>();
+    Builders.range(0, 5).forEach(collectInto(actual));
+    assertThat(actual).containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  public void shouldPassValuesInBatches() {
+    final List<List<Integer>> actual = new ArrayList<List<Integer>>();
+    Builders.range(0, 5).forEachBatch(2, new Consumer<List<Integer>>() {
+      @Override
+      public void accept(final List<Integer> batch) {
+        actual.add(new ArrayList<Integer>(batch));
+      }
+    });
+    assertThat(actual).hasSize(3);
+    assertThat(actual.get(0)).containsExactly(0, 1);
+    assertThat(actual.get(1)).containsExactly(2, 3);
+    assertThat(actual.get(2)).containsExactly(4);
+  }
+
+  @Test
+  public void shouldReuseOneListForAllBatches() {
+    final List<List<Integer>> actual = new ArrayList<List<Integer>>();
+    Builders.range(0, 6).forEachBatch(3, collectInto(actual));
+    assertThat(actual).hasSize(2);
+    assertThat(actual.get(0)).isSameAs(actual.get(1));
+    assertThat(actual.get(0)).isEmpty();
+  }
+
+  @Test
+  public void shouldNotPassEmptyBatchForEmptySequence() {
+    final List<List<Integer>> actual = new ArrayList<List<Integer>>();
+    Builders.range(0, 0).forEachBatch(3, collectInto(actual));
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  public void shouldNotAllowActionsToModifyBatch() {
+    try {
+      Builders.range(0, 2).forEachBatch(2, new Consumer<List<Integer>>() {
+        @Override
+        public void accept(final List<Integer> batch) {
+          batch.clear();
+        }
+      });
+      fail("Expected an exception");
+    } catch (final UnsupportedOperationException e) {
+      // pass
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectBatchSizesBelowOne() {
+    Builders.range(0, 2).forEachBatch(0, collectInto(new ArrayList<Object>()));
+  }
+
+  @Test
+  public void shouldBatchWithoutPresizingToRequestedSize() {
+    final List<Integer> sizes = new ArrayList<Integer>();
+    Builders.range(0, 3).forEachBatch(Integer.MAX_VALUE,
+        new Consumer<List<Integer>>() {
+          @Override
+          public void accept(final List<Integer> batch) {
+            sizes.add(batch.size());
+          }
+        });
+    assertThat(sizes).containsExactly(3);
+  }
+
+  @Test
+  public void shouldStreamSequencesNotImplementingSpliterator() {
+    assertThat(new CountingSequence(0, 4).stream().toArray()).containsExactly(
+        0, 1, 2, 3);
+  }
+
+  @Test
+  public void shouldSkipSequencesNotImplementingSkip() {
+    assertThat(new CountingSequence(0, 4).skip(3).buildAll()).containsExactly(
+        3);
+    assertThat(new CountingSequence(0, 4).skip(5).buildAll()).isEmpty();
+  }
+
+  @Test
+  public void shouldBuildValuesAtPositionsOfSequencesNotImplementingAt() {
+    assertThat(new CountingSequence(0, 4).at(2)).isEqualTo(2);
+  }
+
+  @Test(expected = NoValueAvailableError.class)
+  public void shouldReportMissingPositionsOfSequencesNotImplementingAt() {
+    new CountingSequence(0, 4).at(4);
+  }
+
+  @Test
+  public void shouldReportUnknownLengthForSequencesNotImplementingLength() {
+    assertThat(new CountingSequence(0, 4).length()).isEqualTo(
+        SequenceLength.unknown());
+  }
+
+  private static <T> Consumer<T> collectInto(final List<? super T> values) {
+    return new Consumer<T>() {
+      @Override
+      public void accept(final T t) {
+        values.add(t);
+      }
+    };
+  }
+
+
+  /**
+   * A sequence implemented outside QuickBuilder, providing only the methods it
+   * must.
+   */
+  private static class CountingSequence implements SequenceBuilder<Integer> {
+    private final int from;
+    private final int remaining;
+
+    CountingSequence(final int from, final int remaining) {
+      this.from = from;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public Integer build() {
+      if (this.remaining == 0) {
+        throw new NoValueAvailableError("Sequence exhausted");
+      }
+      return this.from;
+    }
+
+    @Override
+    public Maybe<Builder<Integer>> next() {
+      if (this.remaining <= 1) {
+        return Maybe.none();
+      }
+      return Maybe.<Builder<Integer>> some(new CountingSequence(this.from + 1,
+          this.remaining - 1));
+    }
+
+    @Override
+    public List<Integer> build(final int number) {
+      final List<Integer> values = new ArrayList<Integer>();
+      for (int i = 0; i != Math.min(number, this.remaining); i++) {
+        values.add(this.from + i);
+      }
+      return values;
+    }
+
+    @Override
+    public List<Integer> buildAll() {
+      return build(this.remaining);
+    }
+
+    @Override
+    public SequenceBuilder<Integer> limit(final int limit) {
+      return new CountingSequence(this.from, Math.min(limit, this.remaining));
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return buildAll().iterator();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.pitest.quickbuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.pitest.quickbuilder.SequenceLength.atMost;
+import static org.pitest.quickbuilder.SequenceLength.exactly;
+import static org.pitest.quickbuilder.SequenceLength.infinite;
+import static org.pitest.quickbuilder.SequenceLength.unknown;
+
+import org.junit.Test;
+
+public class SequenceLengthTest {
+
+  @Test
+  public void shouldTakeShorterOfExactLengths() {
+    assertThat(exactly(3).min(exactly(5))).isEqualTo(exactly(3));
+  }
+
+  @Test
+  public void shouldIgnoreInfiniteLengthsWhenTakingMinimum() {
+    assertThat(infinite().min(exactly(5))).isEqualTo(exactly(5));
+    assertThat(unknown().min(infinite())).isEqualTo(unknown());
+  }
+
+  @Test
+  public void shouldBoundUnknownLengthsWhenTakingMinimum() {
+    assertThat(exactly(3).min(unknown())).isEqualTo(atMost(3));
+    assertThat(atMost(7).min(exactly(5))).isEqualTo(atMost(5));
+  }
+
+  @Test
+  public void shouldAddLengths() {
+    assertThat(exactly(3).plus(exactly(5))).isEqualTo(exactly(8));
+    assertThat(exactly(3).plus(atMost(5))).isEqualTo(atMost(8));
+    assertThat(exactly(3).plus(unknown())).isEqualTo(unknown());
+    assertThat(unknown().plus(infinite())).isEqualTo(infinite());
+  }
+
+  @Test
+  public void shouldNotOverflowWhenAdding() {
+    assertThat(exactly(Long.MAX_VALUE).plus(exactly(1)).size()).isEqualTo(
+        Long.MAX_VALUE);
+  }
+
+  @Test
+  public void shouldReportMaxValueAsSizeOfUnendingSequences() {
+    assertThat(infinite().size()).isEqualTo(Long.MAX_VALUE);
+    assertThat(unknown().size()).isEqualTo(Long.MAX_VALUE);
+    assertThat(infinite().isFinite()).isFalse();
+    assertThat(unknown().isInfinite()).isFalse();
+  }
+
+}
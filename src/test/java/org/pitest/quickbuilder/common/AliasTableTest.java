@@ -0,0 +1,58 @@
+package org.pitest.quickbuilder.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class AliasTableTest {
+
+  private static final int SAMPLES = 100000;
+
+  @Test
+  public void shouldSampleInProportionToWeights() {
+    final int[] counts = sample(new AliasTable(new double[] { 1, 2, 7 }));
+    assertThat(counts[0]).isGreaterThan(9000).isLessThan(11000);
+    assertThat(counts[1]).isGreaterThan(19000).isLessThan(21000);
+    assertThat(counts[2]).isGreaterThan(69000).isLessThan(71000);
+  }
+
+  @Test
+  public void shouldNeverSampleZeroWeights() {
+    final int[] counts = sample(new AliasTable(new double[] { 0, 1, 0, 1 }));
+    assertThat(counts[0]).isEqualTo(0);
+    assertThat(counts[2]).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldAlwaysSampleOnlyWeight() {
+    assertThat(sample(new AliasTable(new double[] { 5 }))[0]).isEqualTo(
+        SAMPLES);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNegativeWeights() {
+    new AliasTable(new double[] { 1, -1 });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNaNWeights() {
+    new AliasTable(new double[] { Double.NaN });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAllZeroWeights() {
+    new AliasTable(new double[] { 0, 0 });
+  }
+
+  private static int[] sample(final AliasTable table) {
+    final SplittableRandom random = new SplittableRandom(1);
+    final int[] counts = new int[4];
+    for (int i = 0; i != SAMPLES; i++) {
+      counts[table.sample(random.nextLong(), random.nextLong())]++;
+    }
+    return counts;
+  }
+
+}
@@ -1,14 +1,20 @@
 package org.pitest.quickbuilder.common;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.pitest.quickbuilder.builders.Builders.asString;
 import static org.pitest.quickbuilder.builders.Builders.integersFrom;
+import static org.pitest.quickbuilder.builders.Builders.repeat;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.NoValueAvailableError;
 import org.pitest.quickbuilder.common.BuilderIterable;
 
 public class BuilderIterableTest {
@@ -57,4 +63,128 @@ public class BuilderIterableTest {
     testee.iterator().remove(); 
   }
 
+  @Test
+  public void shouldReportNextUntilFinalValueReturned() {
+    Iterator<String> it = new BuilderIterable<String>(
+        asString(integersFrom(1).limit(2))).iterator();
+    assertEquals(true, it.hasNext());
+    assertEquals("1", it.next());
+    assertEquals(true, it.hasNext());
+    assertEquals("2", it.next());
+    assertEquals(false, it.hasNext());
+  }
+
+  @Test
+  public void shouldAdvanceSequenceOncePerValue() {
+    CountingBuilder counting = new CountingBuilder(3);
+    Iterator<Integer> it = new BuilderIterable<Integer>(counting).iterator();
+    int values = 0;
+    while (it.hasNext() && it.hasNext()) {
+      it.next();
+      values++;
+    }
+    assertEquals(3, values);
+    assertEquals(3, counting.advances[0]);
+  }
+
+  @Test
+  public void shouldIterateOverEveryElementOfSequence() {
+    Iterator<String> it = Sequences.iterator(ElementSequence.from(asList("a",
+        "b", "c")).next().value());
+    assertEquals("b", it.next());
+    assertEquals("c", it.next());
+    assertEquals(false, it.hasNext());
+  }
+
+  @Test
+  public void shouldIterateOverEveryRepetition() {
+    Iterator<String> it = repeat("a", 2).iterator();
+    assertEquals("a", it.next());
+    assertEquals("a", it.next());
+    assertEquals(false, it.hasNext());
+  }
+
+  @Test
+  public void shouldNotIterateOverEmptySequence() {
+    Iterator<String> it = new BuilderIterable<String>(
+        ElementSequence.from(Collections.<String> emptyList())).iterator();
+    assertEquals(false, it.hasNext());
+  }
+
+  @Test
+  public void shouldPassErrorsBuildingValuesToCaller() {
+    Iterator<Integer> it = new BuilderIterable<Integer>(new FailingBuilder(0,
+        2, 5)).iterator();
+    assertEquals(Integer.valueOf(0), it.next());
+    assertEquals(Integer.valueOf(1), it.next());
+    assertEquals(true, it.hasNext());
+    try {
+      it.next();
+      fail();
+    } catch (NoValueAvailableError ex) {
+      assertEquals("Value 2 failed", ex.getMessage());
+    }
+  }
+
+  /**
+   * A sequence of 0 to length - 1 whose value at failAt cannot be built
+   */
+  static class FailingBuilder implements Builder<Integer> {
+    private final int position;
+    private final int failAt;
+    private final int length;
+
+    FailingBuilder(int position, int failAt, int length) {
+      this.position = position;
+      this.failAt = failAt;
+      this.length = length;
+    }
+
+    @Override
+    public Integer build() {
+      if (this.position == this.failAt) {
+        throw new NoValueAvailableError("Value " + this.position + " failed");
+      }
+      return this.position;
+    }
+
+    @Override
+    public Maybe<Builder<Integer>> next() {
+      if (this.position + 1 == this.length) {
+        return Maybe.none();
+      }
+      return Maybe.<Builder<Integer>> some(new FailingBuilder(
+          this.position + 1, this.failAt, this.length));
+    }
+  }
+
+  static class CountingBuilder implements Builder<Integer> {
+    private final int   remaining;
+    private final int[] advances;
+
+    CountingBuilder(int remaining) {
+      this(remaining, new int[1]);
+    }
+
+    private CountingBuilder(int remaining, int[] advances) {
+      this.remaining = remaining;
+      this.advances = advances;
+    }
+
+    @Override
+    public Integer build() {
+      return this.remaining;
+    }
+
+    @Override
+    public Maybe<Builder<Integer>> next() {
+      this.advances[0]++;
+      if (this.remaining == 1) {
+        return Maybe.none();
+      }
+      return Maybe.<Builder<Integer>> some(new CountingBuilder(
+          this.remaining - 1, this.advances));
+    }
+  }
+
 }
@@ -0,0 +1,139 @@
+package org.pitest.quickbuilder.common;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.pitest.quickbuilder.builders.Builders.asString;
+import static org.pitest.quickbuilder.builders.Builders.compose;
+import static org.pitest.quickbuilder.builders.Builders.integersFrom;
+import static org.pitest.quickbuilder.builders.Builders.once;
+import static org.pitest.quickbuilder.builders.Builders.repeat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.Conversion;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+public class BuilderSpliteratorTest {
+
+  @Test
+  public void shouldBeSizedWhenLengthKnown() {
+    Spliterator<String> testee = ElementSequence.from(asList("a", "b", "c"))
+        .spliterator();
+    assertThat(testee.hasCharacteristics(Spliterator.SIZED)).isTrue();
+    assertThat(testee.estimateSize()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldNotBeSizedWhenLengthUnknown() {
+    Spliterator<Integer> testee = integersFrom(0).spliterator();
+    assertThat(testee.hasCharacteristics(Spliterator.SIZED)).isFalse();
+    assertThat(testee.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+    assertThat(testee.estimateSize()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void shouldEstimateSizeOfLimitedSequences() {
+    Spliterator<Integer> testee = integersFrom(0).limit(10).spliterator();
+    assertThat(testee.estimateSize()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldSplitIntoOrderedHalves() {
+    Spliterator<Integer> testee = integersFrom(0).limit(10).spliterator();
+    Spliterator<Integer> prefix = testee.trySplit();
+    assertThat(drain(prefix)).containsExactly(0, 1, 2, 3, 4);
+    assertThat(drain(testee)).containsExactly(5, 6, 7, 8, 9);
+  }
+
+  @Test
+  public void shouldSplitComposedSequences() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> builder = compose(repeat("a", 2), once("b"),
+        asString(integersFrom(0).limit(3)));
+    Spliterator<String> testee = builder.spliterator();
+    Spliterator<String> prefix = testee.trySplit();
+    List<String> actual = drain(prefix);
+    actual.addAll(drain(testee));
+    assertThat(actual).containsExactly("a", "a", "b", "0", "1", "2");
+  }
+
+  @Test
+  public void shouldSplitInfiniteSequences() {
+    Spliterator<Integer> testee = integersFrom(0).spliterator();
+    Spliterator<Integer> prefix = testee.trySplit();
+    assertThat(prefix.estimateSize()).isGreaterThan(0).isLessThan(
+        Long.MAX_VALUE);
+    assertThat(drain(prefix).get(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldNotBuildValuesWhenSplitting() {
+    final AtomicInteger conversions = new AtomicInteger();
+    Spliterator<Integer> testee = new ConvertingBuilder<Integer, Integer>(
+        integersFrom(0), new Conversion<Integer, Integer>() {
+          @Override
+          public Integer convert(Integer a) {
+            conversions.incrementAndGet();
+            return a;
+          }
+        }).limit(1000).spliterator();
+    testee.trySplit().trySplit();
+    assertThat(conversions.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldStreamValuesInOrder() {
+    assertThat(integersFrom(1).limit(3).stream().collect(Collectors.toList()))
+        .containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void shouldBuildSameValuesInParallel() {
+    List<Integer> actual = integersFrom(0).limit(100000).stream().parallel()
+        .collect(Collectors.toList());
+    assertThat(actual).isEqualTo(
+        IntStream.range(0, 100000).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void shouldLimitInfiniteStreams() {
+    assertThat(integersFrom(0).stream().limit(3).collect(Collectors.toList()))
+        .containsExactly(0, 1, 2);
+  }
+
+  @Test(expected = NoValueAvailableError.class)
+  public void shouldPassErrorsBuildingValuesToCaller() {
+    Sequences.spliterator(new BuilderIterableTest.FailingBuilder(0, 2, 5))
+        .forEachRemaining(new Consumer<Integer>() {
+          @Override
+          public void accept(Integer t) {
+          }
+        });
+  }
+
+  @Test(expected = NoValueAvailableError.class)
+  public void shouldPassErrorsBuildingRepeatedValuesToCaller() {
+    repeat(new BuilderIterableTest.FailingBuilder(0, 0, 1), 3).stream()
+        .toArray();
+  }
+
+  private static <T> List<T> drain(Spliterator<T> s) {
+    final List<T> ts = new ArrayList<T>();
+    s.forEachRemaining(new Consumer<T>() {
+      @Override
+      public void accept(T t) {
+        ts.add(t);
+      }
+    });
+    return ts;
+  }
+
+}
@@ -1,12 +1,20 @@
 package org.pitest.quickbuilder.common;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.pitest.quickbuilder.builders.Builders.asString;
 import static org.pitest.quickbuilder.builders.Builders.constant;
+import static org.pitest.quickbuilder.builders.Builders.integersFrom;
 import static org.pitest.quickbuilder.builders.Builders.once;
 import static org.pitest.quickbuilder.builders.Builders.repeat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 import org.pitest.quickbuilder.common.ComposedBuilder;
 
 public class ComposedBuilderTest {
@@ -53,4 +61,80 @@ public class ComposedBuilderTest {
     SequenceBuilder<String> actual = ComposedBuilder.compose(constant("1"));
     assertThat(actual.iterator().next()).isEqualTo("1");
   }
+  
+  @Test
+  public void shouldBuildNestedCompositionsInOrder() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> inner = ComposedBuilder.compose(once("b"), once("c"));
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(once("a"), inner, once("d"));
+    assertThat(actual.buildAll()).containsExactly("a", "b", "c", "d");
+  }
+  
+  @Test
+  public void shouldFlattenPartiallyConsumedCompositions() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> inner = ComposedBuilder.compose(repeat("a", 2), once("b"));
+    Builder<String> advanced = inner.next().value();
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(advanced, once("c"));
+    assertThat(actual.buildAll()).containsExactly("a", "b", "c");
+  }
+  
+  @Test
+  public void shouldReportLengthWhenAllChildLengthsKnown() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(repeat("a", 3), ElementSequence.from(asList("b", "c")));
+    assertThat(actual.length()).isEqualTo(SequenceLength.exactly(5));
+    assertThat(actual.skip(1).length()).isEqualTo(SequenceLength.exactly(4));
+  }
+  
+  @Test
+  public void shouldReportInfiniteLengthWhenAChildIsInfinite() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(once("a"), constant("b"));
+    assertThat(actual.length().isInfinite()).isTrue();
+  }
+  
+  @Test
+  public void shouldReportExactLengthWhenInfiniteChildIsLimited() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(once("a"), asString(integersFrom(0)).limit(3));
+    assertThat(actual.length()).isEqualTo(SequenceLength.exactly(4));
+  }
+  
+  @Test
+  public void shouldBuildLongCompositions() {
+    List<Builder<String>> children = new ArrayList<Builder<String>>();
+    for (int i = 0; i != 10000; i++) {
+      children.add(once("" + i));
+    }
+    @SuppressWarnings("unchecked")
+    Builder<String>[] array = children
+        .toArray((Builder<String>[]) new Builder<?>[children.size()]);
+    SequenceBuilder<String> actual = ComposedBuilder.compose(array);
+    assertThat(actual.buildAll()).hasSize(10000).endsWith("9999");
+  }
+  
+  @Test
+  public void shouldSkipToEveryPositionOfComposedSequences() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(repeat("a", 3),
+        once("b"), ElementSequence.from(asList("c", "d")),
+        asString(integersFrom(0).limit(3)), repeat("e", 2));
+    List<String> all = actual.buildAll();
+    for (int i = 0; i != all.size(); i++) {
+      assertThat(actual.at(i)).isEqualTo(all.get(i));
+      assertThat(actual.skip(i).buildAll()).isEqualTo(all.subList(i, all.size()));
+    }
+    assertThat(actual.skip(all.size()).buildAll()).isEmpty();
+  }
+  
+  @Test
+  public void shouldSkipFromPartwayThroughComposedSequence() {
+    @SuppressWarnings("unchecked")
+    SequenceBuilder<String> actual = ComposedBuilder.compose(repeat("a", 3),
+        once("b"), repeat("c", 2));
+    assertThat(actual.skip(2).skip(2).buildAll()).containsExactly("c", "c");
+  }
 }
@@ -2,8 +2,13 @@ package org.pitest.quickbuilder.common;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
 import org.pitest.quickbuilder.Conversion;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.SequenceBuilder;
 import org.pitest.quickbuilder.builders.Builders;
 import org.pitest.quickbuilder.common.ConvertingBuilder;
 
@@ -43,4 +48,38 @@ public class ConvertingBuilderTest {
     };
   }
 
+  @Test
+  public void shouldCombineConversionsOfConvertedSequences() {
+    SequenceBuilder<Integer> actual = ConvertingBuilder.convert(
+        ConvertingBuilder.convert(Builders.integersFrom(1), timesTwo()), timesTwo());
+    assertThat(actual).isInstanceOf(ConvertingBuilder.class);
+    assertThat(actual.build(3)).containsExactly(4, 8, 12);
+  }
+  
+  @Test
+  public void shouldKeepConversionOrder() {
+    SequenceBuilder<String> actual = Builders.asString(ConvertingBuilder.convert(
+        Builders.integersFrom(1), timesTwo()));
+    assertThat(actual.build(2)).containsExactly("2", "4");
+  }
+  
+  @Test
+  public void shouldAdvanceChildOncePerStep() {
+    final AtomicInteger steps = new AtomicInteger();
+    final Builder<Integer> counting = new Builder<Integer>() {
+      @Override
+      public Integer build() {
+        return 1;
+      }
+
+      @Override
+      public Maybe<Builder<Integer>> next() {
+        steps.incrementAndGet();
+        return Maybe.<Builder<Integer>> some(this);
+      }
+    };
+    new ConvertingBuilder<Integer, Integer>(counting, timesTwo()).next();
+    assertThat(steps.get()).isEqualTo(1);
+  }
+  
 }
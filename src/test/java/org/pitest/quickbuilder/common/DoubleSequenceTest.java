@@ -0,0 +1,60 @@
+package org.pitest.quickbuilder.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.DoubleToIntFunction;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.SequenceLength;
+
+public class DoubleSequenceTest {
+
+  @Test
+  public void shouldExcludeUpperBound() {
+    assertThat(DoubleSequence.range(0, 1, 0.25).buildDoubles(10))
+        .containsExactly(0, 0.25, 0.5, 0.75);
+  }
+
+  @Test
+  public void shouldNotAccumulateRoundingErrors() {
+    final DoubleSequence testee = DoubleSequence.range(0, 1, 0.1);
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(10));
+    assertThat(testee.at(3)).isEqualTo(0.1 * 3);
+  }
+
+  @Test
+  public void shouldCountDownWithNegativeStep() {
+    assertThat(DoubleSequence.range(1, 0, -0.5).buildDoubles(10))
+        .containsExactly(1, 0.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNaNStep() {
+    DoubleSequence.range(0, 1, Double.NaN);
+  }
+
+  @Test
+  public void shouldCreateEmptySequenceForNaNBound() {
+    assertThat(DoubleSequence.range(0, Double.NaN, 1).buildDoubles(1))
+        .isEmpty();
+  }
+
+  @Test
+  public void shouldTreatUnreachableBoundAsInfinite() {
+    assertThat(
+        DoubleSequence.range(0, Double.POSITIVE_INFINITY, 1).length()
+            .isInfinite()).isTrue();
+  }
+
+  @Test
+  public void shouldMapValuesToInts() {
+    assertThat(
+        DoubleSequence.from(0.5, 1).mapToInt(new DoubleToIntFunction() {
+          @Override
+          public int applyAsInt(final double value) {
+            return (int) Math.round(value);
+          }
+        }).buildInts(3)).containsExactly(1, 2, 3);
+  }
+
+}
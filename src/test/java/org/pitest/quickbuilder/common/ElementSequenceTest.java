@@ -2,7 +2,9 @@ package org.pitest.quickbuilder.common;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 import org.pitest.quickbuilder.common.ElementSequence;
@@ -42,4 +44,49 @@ public class ElementSequenceTest {
     assertThat(this.testee.iterator().next()).isEqualTo("a");
   }  
 
+  @Test
+  public void shouldReportRemainingSize() {
+    this.testee = ElementSequence.from(Arrays.asList("a", "b", "c"));
+    assertThat(this.testee.size()).isEqualTo(3);
+    assertThat(((ElementSequence<String>) this.testee.next().value()).size())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void shouldSkipValues() {
+    this.testee = ElementSequence.from(Arrays.asList("a", "b", "c"));
+    assertThat(this.testee.skip(2).buildAll()).containsExactly("c");
+    assertThat(this.testee.skip(5).size()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldGetValuesRelativeToPosition() {
+    this.testee = ElementSequence.from(Arrays.asList("a", "b", "c")).skip(1);
+    assertThat(this.testee.get(0)).isEqualTo("b");
+    assertThat(this.testee.get(1)).isEqualTo("c");
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldRejectIndexesOutsideSequence() {
+    this.testee = ElementSequence.from(Arrays.asList("a", "b", "c")).skip(1);
+    this.testee.get(2);
+  }
+
+  @Test
+  public void shouldNotBeAffectedByChangesToSuppliedCollection() {
+    final List<String> values = new ArrayList<String>(Arrays.asList("a", "b"));
+    this.testee = ElementSequence.from(values);
+    values.set(1, "x");
+    assertThat(this.testee.buildAll()).containsExactly("a", "b");
+  }
+
+  @Test
+  public void shouldBuildAllOfLargeSequence() {
+    final List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i != 100000; i++) {
+      values.add(i);
+    }
+    assertThat(ElementSequence.from(values).buildAll()).hasSize(100000);
+  }
+
 }
@@ -0,0 +1,147 @@
+package org.pitest.quickbuilder.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.SequenceLength;
+
+public class IntSequenceTest {
+
+  @Test
+  public void shouldBuildValuesInRange() {
+    assertThat(IntSequence.range(1, 4).buildAll()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void shouldStepThroughRange() {
+    assertThat(IntSequence.range(0, 10, 3).buildInts(10)).containsExactly(0,
+        3, 6, 9);
+  }
+
+  @Test
+  public void shouldCountDownWithNegativeStep() {
+    assertThat(IntSequence.range(5, 0, -2).buildInts(10)).containsExactly(5,
+        3, 1);
+  }
+
+  @Test
+  public void shouldCreateEmptyRangeWhenBoundIsBehindStart() {
+    final IntSequence testee = IntSequence.range(5, 5);
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(0));
+    assertThat(testee.buildInts(3)).isEmpty();
+  }
+
+  @Test(expected = NoValueAvailableError.class)
+  public void shouldThrowErrorWhenBuildingFromEmptyRange() {
+    IntSequence.range(5, 0).buildInt();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectZeroStep() {
+    IntSequence.range(0, 10, 0);
+  }
+
+  @Test
+  public void shouldCoverWholeIntRange() {
+    final IntSequence testee = IntSequence.range(Integer.MIN_VALUE,
+        Integer.MAX_VALUE);
+    assertThat(testee.length()).isEqualTo(
+        SequenceLength.exactly(0xFFFFFFFFL));
+    assertThat(testee.skip(Integer.MAX_VALUE).skip(Integer.MAX_VALUE - 1)
+        .buildInts(10)).containsExactly(Integer.MAX_VALUE - 2,
+        Integer.MAX_VALUE - 1);
+  }
+
+  @Test
+  public void shouldWrapInfiniteSequenceOnOverflow() {
+    final IntSequence testee = IntSequence.from(Integer.MAX_VALUE - 1, 1);
+    assertThat(testee.length().isInfinite()).isTrue();
+    assertThat(testee.buildInts(3)).containsExactly(Integer.MAX_VALUE - 1,
+        Integer.MAX_VALUE, Integer.MIN_VALUE);
+  }
+
+  @Test
+  public void shouldBuildIntsFromCurrentPosition() {
+    final IntSequence testee = IntSequence.from(0, 2);
+    assertThat(testee.next().value().build()).isEqualTo(2);
+    assertThat(testee.skip(2).buildInts(2)).containsExactly(4, 6);
+  }
+
+  @Test
+  public void shouldReturnNoValuesForNegativeCount() {
+    assertThat(IntSequence.from(0, 1).buildInts(-1)).isEmpty();
+  }
+
+  @Test
+  public void shouldLimitToPrimitiveSequence() {
+    final IntSequence testee = IntSequence.from(0, 1).limit(3);
+    assertThat(testee.buildInts(10)).containsExactly(0, 1, 2);
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(3));
+  }
+
+  @Test
+  public void shouldAdvanceWithoutSteppingThroughValues() {
+    assertThat(IntSequence.from(0, 3).advance(1000000).value().build())
+        .isEqualTo(3000000);
+    assertThat(IntSequence.range(0, 3).advance(3).hasNone()).isTrue();
+  }
+
+  @Test
+  public void shouldMapValues() {
+    assertThat(IntSequence.range(1, 4).map(square()).buildInts(3))
+        .containsExactly(1, 4, 9);
+  }
+
+  @Test
+  public void shouldMapValuesToLongs() {
+    assertThat(
+        IntSequence.range(1, 3).mapToLong(new IntToLongFunction() {
+          @Override
+          public long applyAsLong(final int value) {
+            return value * 10000000000L;
+          }
+        }).buildLongs(3)).containsExactly(10000000000L, 20000000000L);
+  }
+
+  @Test
+  public void shouldMapValuesToDoubles() {
+    assertThat(
+        IntSequence.range(1, 3).mapToDouble(new IntToDoubleFunction() {
+          @Override
+          public double applyAsDouble(final int value) {
+            return value / 2d;
+          }
+        }).buildDoubles(3)).containsExactly(0.5d, 1d);
+  }
+
+  @Test
+  public void shouldKeepPositionWhenMapping() {
+    assertThat(IntSequence.range(1, 5).skip(2).map(square()).buildAll())
+        .containsExactly(9, 16);
+  }
+
+  @Test
+  public void shouldSupportParallelStreams() {
+    final List<Integer> actual = IntSequence.range(0, 100000).stream()
+        .parallel().collect(Collectors.toList());
+    assertThat(actual).hasSize(100000);
+    assertThat(actual.get(99999)).isEqualTo(99999);
+  }
+
+  private static IntUnaryOperator square() {
+    return new IntUnaryOperator() {
+      @Override
+      public int applyAsInt(final int value) {
+        return value * value;
+      }
+    };
+  }
+
+}
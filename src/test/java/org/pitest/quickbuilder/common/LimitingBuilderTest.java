@@ -8,6 +8,8 @@ import java.util.List;
 
 import org.junit.Test;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
+import org.pitest.quickbuilder.builders.Builders;
 import org.pitest.quickbuilder.common.ConstantBuilder;
 import org.pitest.quickbuilder.common.LimitingBuilder;
 
@@ -55,4 +57,40 @@ public class LimitingBuilderTest {
     assertThat(limited.iterator().next()).isEqualTo("a");
 
   }
+  
+  @Test
+  public void shouldFoldLimitsOfLimitsIntoOneLimit() {
+    SequenceBuilder<Integer> limited = LimitingBuilder.limit(3, LimitingBuilder.limit(5, Integers.integersFrom(0)));
+    assertThat(limited).isInstanceOf(LimitingBuilder.class);
+    assertThat(((LimitingBuilder<Integer>) limited).child()).isInstanceOf(Integers.class);
+    assertThat(limited.buildAll()).containsExactly(0, 1, 2);
+  }
+  
+  @Test
+  public void shouldSliceLimitedElementSequences() {
+    SequenceBuilder<String> limited = LimitingBuilder.limit(2, from(asList("1","2","3")));
+    assertThat(limited).isInstanceOf(ElementSequence.class);
+    assertThat(limited.buildAll()).containsExactly("1", "2");
+    assertThat(limited.length()).isEqualTo(SequenceLength.exactly(2));
+  }
+  
+  @Test
+  public void shouldNotBuildPastEndOfShorterElementSequence() {
+    SequenceBuilder<String> limited = LimitingBuilder.limit(5, from(asList("1","2")));
+    assertThat(limited.buildAll()).containsExactly("1", "2");
+  }
+  
+  @Test
+  public void shouldCountLimitedConstants() {
+    SequenceBuilder<String> limited = Builders.constant("a").limit(3);
+    assertThat(limited).isInstanceOf(RepeatedBuilder.class);
+    assertThat(limited.buildAll()).containsExactly("a", "a", "a");
+  }
+  
+  @Test
+  public void shouldLimitSequenceBeingConverted() {
+    SequenceBuilder<String> limited = Builders.asString(from(asList(1, 2, 3))).limit(2);
+    assertThat(limited).isInstanceOf(ConvertingBuilder.class);
+    assertThat(limited.buildAll()).containsExactly("1", "2");
+  }
 }
@@ -0,0 +1,73 @@
+package org.pitest.quickbuilder.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.SequenceLength;
+
+public class LongSequenceTest {
+
+  @Test
+  public void shouldStepThroughRange() {
+    assertThat(LongSequence.range(0, 10, 4).buildLongs(10)).containsExactly(
+        0, 4, 8);
+  }
+
+  @Test
+  public void shouldSupportBoundsBeyondIntRange() {
+    final long start = 1L << 40;
+    assertThat(LongSequence.range(start, start + 3, 1).buildAll())
+        .containsExactly(start, start + 1, start + 2);
+  }
+
+  @Test
+  public void shouldSizeRangesWiderThanLongMaxValue() {
+    final long size = 6148914691236517205L;
+    final LongSequence testee = LongSequence.range(Long.MIN_VALUE,
+        Long.MAX_VALUE, 3);
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(size));
+    assertThat(testee.advance(size - 1).value().build()).isEqualTo(
+        Long.MAX_VALUE - 3);
+    assertThat(testee.advance(size).hasNone()).isTrue();
+  }
+
+  @Test
+  public void shouldTreatRangesOfMoreThanLongMaxValuesAsInfinite() {
+    assertThat(
+        LongSequence.range(Long.MIN_VALUE, Long.MAX_VALUE, 1).length()
+            .isInfinite()).isTrue();
+  }
+
+  @Test
+  public void shouldCountDownFromMaxValue() {
+    assertThat(
+        LongSequence.range(Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE)
+            .buildLongs(3)).containsExactly(Long.MAX_VALUE, -1);
+  }
+
+  @Test
+  public void shouldMapValues() {
+    assertThat(
+        LongSequence.from(1, 1).map(new LongUnaryOperator() {
+          @Override
+          public long applyAsLong(final long value) {
+            return -value;
+          }
+        }).buildLongs(2)).containsExactly(-1, -2);
+  }
+
+  @Test
+  public void shouldMapValuesToInts() {
+    assertThat(
+        LongSequence.from(1, 1).mapToInt(new LongToIntFunction() {
+          @Override
+          public int applyAsInt(final long value) {
+            return (int) value * 2;
+          }
+        }).limit(2).buildAll()).containsExactly(2, 4);
+  }
+
+}
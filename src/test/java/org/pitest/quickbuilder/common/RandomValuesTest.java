@@ -0,0 +1,206 @@
+package org.pitest.quickbuilder.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+public class RandomValuesTest {
+
+  @Test
+  public void shouldProduceSameValuesFromSameSeed() {
+    assertThat(RandomValues.ints(42, 0, 1000).buildInts(100)).isEqualTo(
+        RandomValues.ints(42, 0, 1000).buildInts(100));
+  }
+
+  @Test
+  public void shouldProduceDifferentValuesFromDifferentSeeds() {
+    assertThat(RandomValues.longs(1).buildLongs(10)).isNotEqualTo(
+        RandomValues.longs(2).buildLongs(10));
+  }
+
+  @Test
+  public void shouldKeepIntsWithinBounds() {
+    for (final int each : RandomValues.ints(1, -5, 5).buildInts(1000)) {
+      assertThat(each).isGreaterThanOrEqualTo(-5).isLessThan(5);
+    }
+  }
+
+  @Test
+  public void shouldKeepLongsWithinBounds() {
+    for (final long each : RandomValues.longs(1, 1L << 40, (1L << 40) + 3)
+        .buildLongs(100)) {
+      assertThat(each).isGreaterThanOrEqualTo(1L << 40).isLessThan(
+          (1L << 40) + 3);
+    }
+  }
+
+  @Test
+  public void shouldKeepDoublesBetweenZeroAndOne() {
+    for (final double each : RandomValues.doubles(1).buildDoubles(1000)) {
+      assertThat(each).isGreaterThanOrEqualTo(0d).isLessThan(1d);
+    }
+  }
+
+  @Test
+  public void shouldProduceSameValuesWhenSkipping() {
+    final LongSequence testee = RandomValues.longs(7);
+    final long[] all = testee.buildLongs(20);
+    assertThat(testee.skip(10).buildLongs(10)).isEqualTo(
+        Arrays.copyOfRange(all, 10, 20));
+  }
+
+  @Test
+  public void shouldProduceSameValuesInParallel() {
+    final SequenceBuilder<String> testee = RandomValues.strings(3, "abc", 0,
+        8).limit(20000);
+    assertThat(testee.stream().parallel().collect(Collectors.toList()))
+        .isEqualTo(testee.buildAll());
+  }
+
+  @Test
+  public void shouldBuildStringsFromAlphabet() {
+    for (final String each : RandomValues.strings(5, "xy", 2, 4).build(100)) {
+      assertThat(each).matches("[xy]{2,4}");
+    }
+  }
+
+  @Test
+  public void shouldNotRepeatShiftedStringsAtNeighbouringPositions() {
+    final List<String> actual = RandomValues.strings(5, "abcdefgh", 10, 10)
+        .build(2);
+    assertThat(actual.get(1).substring(0, 9)).isNotEqualTo(
+        actual.get(0).substring(1));
+  }
+
+  @Test
+  public void shouldProduceBothBooleans() {
+    assertThat(new HashSet<Boolean>(RandomValues.booleans(9).build(100)))
+        .containsOnly(true, false);
+  }
+
+  @Test
+  public void shouldPickEveryElement() {
+    final Set<String> actual = new HashSet<String>(RandomValues.elements(11,
+        Arrays.asList("a", "b", "c")).build(100));
+    assertThat(actual).containsOnly("a", "b", "c");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectEmptyRange() {
+    RandomValues.ints(1, 5, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectEmptyList() {
+    RandomValues.elements(1, Arrays.<String> asList());
+  }
+
+  @Test
+  public void shouldProduceNormallyDistributedValues() {
+    final double[] values = RandomValues.gaussians(1, 10, 2).buildDoubles(
+        100000);
+    final double mean = mean(values);
+    double squares = 0;
+    for (final double each : values) {
+      squares += (each - mean) * (each - mean);
+    }
+    assertThat(mean).isGreaterThan(9.95).isLessThan(10.05);
+    assertThat(Math.sqrt(squares / values.length)).isGreaterThan(1.95)
+        .isLessThan(2.05);
+  }
+
+  @Test
+  public void shouldProduceExponentiallyDistributedValues() {
+    final double[] values = RandomValues.exponentials(1, 3).buildDoubles(
+        100000);
+    assertThat(mean(values)).isGreaterThan(2.95).isLessThan(3.05);
+    for (final double each : values) {
+      assertThat(each).isGreaterThanOrEqualTo(0d);
+    }
+  }
+
+  @Test
+  public void shouldFavourLowZipfRanks() {
+    final int[] counts = new int[101];
+    for (final int each : RandomValues.zipf(1, 100, 1).buildInts(100000)) {
+      counts[each]++;
+    }
+    assertThat(counts[0]).isEqualTo(0);
+    // rank one is twice as likely as rank two and 100 times rank 100
+    assertThat(counts[1]).isGreaterThan((counts[2] * 18) / 10).isLessThan(
+        (counts[2] * 22) / 10);
+    assertThat(counts[1]).isGreaterThan(counts[100] * 50);
+  }
+
+  @Test
+  public void shouldPickValuesInProportionToWeights() {
+    int hot = 0;
+    for (final String each : RandomValues.oneOf(5,
+        Arrays.asList("hot", "cold"), 9, 1).build(10000)) {
+      if (each.equals("hot")) {
+        hot++;
+      }
+    }
+    assertThat(hot).isGreaterThan(8800).isLessThan(9200);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMismatchedWeights() {
+    RandomValues.oneOf(1, Arrays.asList("a", "b"), 1);
+  }
+
+  @Test
+  public void shouldProduceSameSkewedValuesInParallel() {
+    final SequenceBuilder<Integer> testee = RandomValues.zipf(3, 1000, 1.2)
+        .limit(20000);
+    assertThat(testee.stream().parallel().collect(Collectors.toList()))
+        .isEqualTo(testee.buildAll());
+  }
+
+  @Test
+  public void shouldSampleSkewedValuesWithoutAllocating() {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    final long thread = Thread.currentThread().getId();
+
+    final IntSequence zipf = RandomValues.zipf(1, 1000, 1.1);
+    final DoubleSequence gaussians = RandomValues.gaussians(1, 0, 1);
+    final DoubleSequence exponentials = RandomValues.exponentials(1, 1);
+    final SequenceBuilder<String> weighted = RandomValues.oneOf(1,
+        Arrays.asList("a", "b"), 1, 3);
+
+    final int samples = 100000;
+    double total = 0;
+    final long before = allocations.getThreadAllocatedBytes(thread);
+    for (int i = 0; i != samples; i++) {
+      total += zipf.buildInt() + gaussians.buildDouble()
+          + exponentials.buildDouble() + weighted.build().length();
+    }
+    final long allocated = allocations.getThreadAllocatedBytes(thread)
+        - before;
+
+    assertThat(total).isNotEqualTo(0d);
+    // far less than one object per sample
+    assertThat(allocated).isLessThan(samples);
+  }
+
+  private static double mean(final double[] values) {
+    double total = 0;
+    for (final double each : values) {
+      total += each;
+    }
+    return total / values.length;
+  }
+
+}
@@ -1,10 +1,16 @@
 package org.pitest.quickbuilder.common;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.pitest.quickbuilder.common.ConstantBuilder.constant;
 
+import java.util.Collections;
+
 import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 import org.pitest.quickbuilder.common.RepeatedBuilder;
 
 public class RepeatedBuilderTest {
@@ -36,4 +42,48 @@ public class RepeatedBuilderTest {
     testee = RepeatedBuilder.repeat(2,constant("foo"));
     assertThat(testee.iterator().next()).isEqualTo("foo");
   }
+  
+  @Test
+  public void shouldRepeatFirstValueOfRepeatedSequence() {
+    testee = RepeatedBuilder.repeat(3, RepeatedBuilder.repeat(2, constant("foo")));
+    assertThat(testee.buildAll()).containsExactly("foo", "foo", "foo");
+  }
+  
+  @Test
+  public void shouldRepeatFirstValueOfLimitedSequence() {
+    testee = RepeatedBuilder.repeat(2, LimitingBuilder.limit(3, ElementSequence.from(asList("a", "b"))));
+    assertThat(testee.buildAll()).containsExactly("a", "a");
+  }
+
+  @Test
+  public void shouldHaveNoValuesWhenChildIsEmpty() {
+    testee = RepeatedBuilder.repeat(3, ElementSequence.from(Collections.<String> emptyList()));
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(0));
+    assertThat(testee.stream().toArray()).isEmpty();
+    assertThat(testee.iterator().hasNext()).isFalse();
+  }
+
+  @Test
+  public void shouldBoundLengthWhenChildLengthIsUnknown() {
+    final Builder<String> unknown = new Builder<String>() {
+      @Override
+      public String build() {
+        return "foo";
+      }
+
+      @Override
+      public Maybe<Builder<String>> next() {
+        return Maybe.<Builder<String>> some(this);
+      }
+    };
+    testee = RepeatedBuilder.repeat(3, unknown);
+    assertThat(testee.length()).isEqualTo(SequenceLength.atMost(3));
+    assertThat(testee.stream().toArray()).containsExactly("foo", "foo", "foo");
+  }
+
+  @Test
+  public void shouldHaveExactLengthWhenChildHasAValue() {
+    testee = RepeatedBuilder.repeat(3, constant("foo"));
+    assertThat(testee.length()).isEqualTo(SequenceLength.exactly(3));
+  }
 }
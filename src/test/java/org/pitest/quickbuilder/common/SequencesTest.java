@@ -1,12 +1,17 @@
 package org.pitest.quickbuilder.common;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Iterator;
 
 import org.junit.Test;
 import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Maybe;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.QuickBuilderError;
 import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.SequenceLength;
 import org.pitest.quickbuilder.builders.Builders;
 import org.pitest.quickbuilder.builders.QB;
 import org.pitest.quickbuilder.common.Sequences;
@@ -67,4 +72,107 @@ public class SequencesTest {
     assertThat(actual.buildAll()).containsExactly("foo", "bar");
   }
 
+  @Test
+  public void shouldSkipIntegersWithoutSteppingThroughThem() {
+    assertThat(Builders.integersFrom(0).skip(1000000).build()).isEqualTo(1000000);
+  }
+  
+  @Test
+  public void shouldBuildValueAtIndex() {
+    assertThat(Builders.repeat("a", 3).at(2)).isEqualTo("a");
+    assertThat(ElementSequence.from(asList("a", "b", "c")).at(1)).isEqualTo("b");
+  }
+  
+  @Test
+  public void shouldReturnEmptySequenceWhenSkippingPastEnd() {
+    assertThat(Builders.repeat("a", 3).skip(3).buildAll()).isEmpty();
+  }
+  
+  @Test(expected = NoValueAvailableError.class)
+  public void shouldErrorWhenNoValueAtIndex() {
+    Builders.repeat("a", 3).at(3);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSkipNegativeNumberOfValues() {
+    Builders.integersFrom(0).skip(-1);
+  }
+  
+  @Test
+  public void shouldSkipLimitedAndConvertedSequences() {
+    final SequenceBuilder<String> builder = Builders.asString(Builders.integersFrom(0)).limit(10);
+    assertThat(builder.skip(7).buildAll()).containsExactly("7", "8", "9");
+  }
+  
+  @Test
+  public void shouldStepThroughBuildersWithoutRandomAccess() {
+    final Builder<Integer> builder = new Builder<Integer>() {
+      @Override
+      public Integer build() {
+        return 0;
+      }
+
+      @Override
+      public Maybe<Builder<Integer>> next() {
+        return Maybe.<Builder<Integer>> some(Builders.integersFrom(1));
+      }
+    };
+    assertThat(Sequences.at(builder, 5)).isEqualTo(5);
+  }
+  
+  @Test
+  public void shouldSkipGeneratedBuilders() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class)
+        .withId(Builders.asString(Builders.integersFrom(0)))
+        .withName("apple");
+    assertThat(builder.at(500).getId()).isEqualTo("500");
+    assertThat(builder.skip(10).build().getName()).isEqualTo("apple");
+  }
+  
+  @Test
+  public void shouldReturnEmptySequenceWhenSkippingGeneratedBuilderPastEnd() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class)
+        .withId(ElementSequence.from(asList("a", "b")));
+    assertThat(builder.skip(1).buildAll()).hasSize(1);
+    assertThat(builder.skip(2).buildAll()).isEmpty();
+  }
+
+  @Test
+  public void shouldReportLengthOfGeneratedBuilderAsShortestPropertySequence() {
+    final FruitBuilder builder = QB.builder(FruitBuilder.class)
+        .withId(ElementSequence.from(asList("a", "b", "c")))
+        .withName("apple");
+    assertThat(builder.length()).isEqualTo(SequenceLength.exactly(3));
+    assertThat(builder.limit(2).length()).isEqualTo(SequenceLength.exactly(2));
+  }
+  
+  @Test
+  public void shouldReportGeneratedBuildersOfConstantsAsInfinite() {
+    assertThat(QB.builder(FruitBuilder.class).withName("apple").length()
+        .isInfinite()).isTrue();
+  }
+  
+  @Test(expected = QuickBuilderError.class)
+  public void shouldRejectBuildAllOfInfiniteSequence() {
+    QB.builder(FruitBuilder.class).withName("apple").buildAll();
+  }
+  
+  @Test
+  public void shouldBoundLengthOfLimitedBuildersOfUnknownLength() {
+    final Builder<Integer> unknown = new Builder<Integer>() {
+      @Override
+      public Integer build() {
+        return 0;
+      }
+
+      @Override
+      public Maybe<Builder<Integer>> next() {
+        return Maybe.none();
+      }
+    };
+    assertThat(Sequences.length(unknown)).isEqualTo(SequenceLength.unknown());
+    assertThat(Sequences.decorate(unknown).limit(5).length()).isEqualTo(
+        SequenceLength.atMost(5));
+  }
+
 }
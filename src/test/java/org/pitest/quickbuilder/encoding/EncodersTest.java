@@ -0,0 +1,199 @@
+package org.pitest.quickbuilder.encoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.Conversion;
+import org.pitest.quickbuilder.NoValueAvailableError;
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.SequenceBuilder;
+import org.pitest.quickbuilder.builders.Builders;
+import org.pitest.quickbuilder.builders.QB;
+import org.pitest.quickbuilder.common.ConvertingBuilder;
+
+import com.example.beans.FruitBean;
+import com.example.beans.FruitBuilder;
+import com.example.beans.primitives.PrimitiveBean;
+import com.example.beans.primitives.PrimitiveSequenceBeanBuilder;
+
+public class EncodersTest {
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Test
+  public void shouldWriteCsvWithHeaderRow() throws IOException {
+    Encoders.write(fruit(2), Encoders.csv(FruitBean.class, "id", "name",
+        "ripeness"), this.out);
+    assertThat(text()).isEqualTo(
+        "id,name,ripeness\r\n0,apple,-3\r\n1,apple,-3\r\n");
+  }
+
+  @Test
+  public void shouldWriteEveryPropertySortedByNameByDefault()
+      throws IOException {
+    Encoders.write(fruit(1), Encoders.csv(FruitBean.class), this.out);
+    assertThat(text()).startsWith("colour,id,name,ripeness\r\n,0,apple,-3");
+  }
+
+  @Test
+  public void shouldQuoteCsvFieldsContainingSeparators() throws IOException {
+    final SequenceBuilder<FruitBean> fruit = QB.builder(FruitBuilder.class)
+        .withName("say \"hi\", there").limit(1);
+    Encoders.write(fruit, Encoders.csv(FruitBean.class, "name"), this.out);
+    assertThat(text()).isEqualTo("name\r\n\"say \"\"hi\"\", there\"\r\n");
+  }
+
+  @Test
+  public void shouldWriteJsonLines() throws IOException {
+    Encoders.write(fruit(2), Encoders.jsonLines(FruitBean.class, "id",
+        "ripeness", "colour"), this.out);
+    assertThat(text()).isEqualTo(
+        "{\"id\":\"0\",\"ripeness\":-3,\"colour\":null}\n"
+            + "{\"id\":\"1\",\"ripeness\":-3,\"colour\":null}\n");
+  }
+
+  @Test
+  public void shouldEscapeJsonStrings() throws IOException {
+    final SequenceBuilder<FruitBean> fruit = QB.builder(FruitBuilder.class)
+        .withName("a\"b\\c\nd\u0001\u00e9").limit(1);
+    Encoders.write(fruit, Encoders.jsonLines(FruitBean.class, "name"),
+        this.out);
+    assertThat(text()).isEqualTo(
+        "{\"name\":\"a\\\"b\\\\c\\nd\\u0001\u00e9\"}\n");
+  }
+
+  @Test
+  public void shouldWriteJsonLiteralsForPrimitives() throws IOException {
+    Encoders.write(primitives(1), Encoders.jsonLines(PrimitiveBean.class,
+        "b", "d", "i", "l"), this.out);
+    assertThat(text()).isEqualTo(
+        "{\"b\":false,\"d\":0.5,\"i\":0,\"l\":1099511627776}\n");
+  }
+
+  @Test
+  public void shouldWriteLengthPrefixedBinaryRecords() throws IOException {
+    Encoders.write(primitives(2), Encoders.binary(PrimitiveBean.class, "i",
+        "l", "d", "b"), this.out);
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+        this.out.toByteArray()));
+    for (int i = 0; i != 2; i++) {
+      assertThat(in.readInt()).isEqualTo(21);
+      assertThat(in.readInt()).isEqualTo(i);
+      assertThat(in.readLong()).isEqualTo((1L << 40) + i);
+      assertThat(in.readDouble()).isEqualTo(0.5 + i);
+      assertThat(in.readBoolean()).isFalse();
+    }
+    assertThat(in.available()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldWriteStringsInBinaryRecordsWithByteLengths()
+      throws IOException {
+    Encoders.write(fruit(1), Encoders.binary(FruitBean.class, "colour",
+        "name"), this.out);
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+        this.out.toByteArray()));
+    assertThat(in.readInt()).isEqualTo(13);
+    assertThat(in.readInt()).isEqualTo(-1);
+    assertThat(in.readInt()).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldStreamSequencesLargerThanBuffer() throws IOException {
+    final long written = Encoders.write(fruit(100000), Encoders.csv(
+        FruitBean.class, "id"), this.out);
+    assertThat(written).isEqualTo(this.out.size());
+    assertThat(text()).endsWith("\r\n99999\r\n");
+  }
+
+  @Test
+  public void shouldRejectInfiniteSequences() throws IOException {
+    try {
+      Encoders.write(Builders.integersFrom(0), new RecordEncoder<Object>() {
+        @Override
+        public void begin(final RecordOutput out) {
+        }
+
+        @Override
+        public void encode(final Object value, final RecordOutput out) {
+        }
+      }, this.out);
+      fail("Expected an error");
+    } catch (final QuickBuilderError e) {
+      assertThat(e).hasMessageContaining("infinite");
+    }
+  }
+
+  @Test
+  public void shouldReportIOExceptionsFromStream() {
+    final OutputStream broken = new OutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len)
+          throws IOException {
+        throw new IOException("disk full");
+      }
+    };
+    try {
+      Encoders.write(fruit(10), Encoders.csv(FruitBean.class), broken);
+      fail("Expected an exception");
+    } catch (final IOException e) {
+      assertThat(e).hasMessage("disk full");
+    }
+  }
+
+  @Test
+  public void shouldPassErrorsBuildingValuesToCaller() throws IOException {
+    final SequenceBuilder<String> ids = ConvertingBuilder.convert(
+        Builders.integersFrom(0), new Conversion<Integer, String>() {
+          @Override
+          public String convert(final Integer i) {
+            if (i == 2) {
+              throw new NoValueAvailableError("No id for " + i);
+            }
+            return "" + i;
+          }
+        });
+    try {
+      Encoders.write(QB.builder(FruitBuilder.class).withId(ids).limit(5),
+          Encoders.csv(FruitBean.class), this.out);
+      fail("Expected an error");
+    } catch (final NoValueAvailableError e) {
+      assertThat(e).hasMessage("No id for 2");
+    }
+  }
+
+  @Test(expected = QuickBuilderError.class)
+  public void shouldRejectUnknownProperties() {
+    Encoders.csv(FruitBean.class, "weight");
+  }
+
+  private static SequenceBuilder<FruitBean> fruit(final int n) {
+    return QB.builder(FruitBuilder.class).withName("apple")
+        .withId(Builders.asString(Builders.integersFrom(0)))
+        .withRipeness(-3).limit(n);
+  }
+
+  private static SequenceBuilder<PrimitiveBean> primitives(final int n) {
+    return QB.builder(PrimitiveSequenceBeanBuilder.class)
+        .withI(Builders.range(0, n)).withL(Builders.longsFrom(1L << 40, 1))
+        .withD(Builders.doublesFrom(0.5, 1));
+  }
+
+  private String text() {
+    return new String(this.out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,105 @@
+package org.pitest.quickbuilder.encoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class RecordOutputTest {
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final BufferPool            pool  = new BufferPool(16, 2);
+  private final RecordOutput          testee = new RecordOutput(
+                                                  Channels.newChannel(this.bytes),
+                                                  this.pool);
+
+  @Test
+  public void shouldWriteDecimals() throws IOException {
+    final long[] values = { 0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE,
+        Long.MIN_VALUE };
+    for (final long each : values) {
+      this.testee.writeDecimal(each).writeByte(' ');
+    }
+    this.testee.finish();
+    assertThat(text()).isEqualTo(
+        "0 7 -7 10 1234567890123 9223372036854775807 -9223372036854775808 ");
+  }
+
+  @Test
+  public void shouldEncodeUtf8LikeString() throws IOException {
+    final String s = "a\u00e9\u20ac\ud83d\ude00z";
+    this.testee.writeUtf8(s);
+    this.testee.finish();
+    assertThat(this.bytes.toByteArray()).isEqualTo(
+        s.getBytes(StandardCharsets.UTF_8));
+    assertThat(RecordOutput.utf8Length(s)).isEqualTo(
+        s.getBytes(StandardCharsets.UTF_8).length);
+  }
+
+  @Test
+  public void shouldWriteRangesOfCharacters() throws IOException {
+    this.testee.writeUtf8("abcdef", 1, 4);
+    this.testee.finish();
+    assertThat(text()).isEqualTo("bcd");
+  }
+
+  @Test
+  public void shouldFlushWhenBufferFills() throws IOException {
+    this.testee.writeUtf8("0123456789abcdefghij");
+    assertThat(this.bytes.size()).isGreaterThan(0).isLessThanOrEqualTo(16);
+    assertThat(this.testee.bytesWritten()).isEqualTo(20);
+    this.testee.finish();
+    assertThat(text()).isEqualTo("0123456789abcdefghij");
+  }
+
+  @Test
+  public void shouldKeepOpenRecordBufferedUntilEnded() throws IOException {
+    this.testee.writeUtf8("0123456789");
+    this.testee.beginLengthPrefixed();
+    this.testee.writeLong(1).writeLong(2).writeLong(3);
+    this.testee.endLengthPrefixed();
+    this.testee.finish();
+
+    final ByteBuffer actual = ByteBuffer.wrap(this.bytes.toByteArray());
+    actual.position(10);
+    assertThat(actual.getInt()).isEqualTo(24);
+    assertThat(actual.getLong()).isEqualTo(1);
+    assertThat(actual.getLong()).isEqualTo(2);
+    assertThat(actual.getLong()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldReturnBufferToPoolWhenFinished() throws IOException {
+    this.testee.writeByte(1);
+    this.testee.finish();
+    assertThat(this.pool.size()).isEqualTo(1);
+    this.testee.release();
+    assertThat(this.pool.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotPoolBuffersGrownForLargeRecords() throws IOException {
+    this.testee.beginLengthPrefixed();
+    this.testee.writeUtf8("a record longer than the buffer");
+    this.testee.endLengthPrefixed();
+    this.testee.finish();
+    assertThat(this.pool.size()).isEqualTo(1);
+    assertThat(this.pool.acquire().capacity()).isEqualTo(16);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRejectNestedLengthPrefixedRecords() throws IOException {
+    this.testee.beginLengthPrefixed();
+    this.testee.beginLengthPrefixed();
+  }
+
+  private String text() {
+    return new String(this.bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,94 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
+
+import com.example.beans.StringBean;
+import com.example.generated.BuilderInterfaceLoader;
+
+public class BuilderFactoriesTest {
+
+  @Test
+  public void shouldImplementInterfacesNotVisibleToQuickBuildersLoader() {
+    final Class<?> builder = new BuilderInterfaceLoader()
+        .makeBuilderInterface("ChildLoaderBuilder");
+    assertThat(newBuilder(builder).build()).isInstanceOf(StringBean.class);
+  }
+
+  @Test
+  public void shouldDefineBuilderClassesInLoaderParentedToInterfacesLoader() {
+    final Class<?> builder = new BuilderInterfaceLoader()
+        .makeBuilderInterface("ParentedBuilder");
+    assertThat(newBuilder(builder).getClass().getClassLoader().getParent())
+        .isSameAs(builder.getClassLoader());
+  }
+
+  @Test
+  public void shouldAllowGeneratedClassesToBeCollectedWithTheirInterface()
+      throws Exception {
+    final WeakReference<Class<?>> generated = createAndDiscardBuilder();
+    for (int i = 0; (i != 50) && (generated.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(generated.get()).isNull();
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedBuilders() {
+    final List<Class<?>> evicted = new ArrayList<Class<?>>();
+    final RecentlyUsedBuilders testee = new RecentlyUsedBuilders(2) {
+      @Override
+      void evict(final Class<?> builder) {
+        evicted.add(builder);
+      }
+    };
+    testee.touch(String.class);
+    testee.touch(Integer.class);
+    testee.touch(String.class);
+    testee.touch(Long.class);
+    assertThat(evicted).containsExactly(Integer.class);
+  }
+
+  @Test
+  public void shouldNotRetainRecentlyUsedInterfaces() throws Exception {
+    final RecentlyUsedBuilders testee = new RecentlyUsedBuilders(10) {
+      @Override
+      void evict(final Class<?> builder) {
+      }
+    };
+    final WeakReference<Class<?>> builder = touchAndDiscard(testee);
+    for (int i = 0; (i != 50) && (builder.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(builder.get()).isNull();
+  }
+
+  private static WeakReference<Class<?>> touchAndDiscard(
+      final RecentlyUsedBuilders recent) {
+    final Class<?> builder = new BuilderInterfaceLoader()
+        .makeBuilderInterface("TouchedBuilder");
+    recent.touch(builder);
+    return new WeakReference<Class<?>>(builder);
+  }
+
+  private static WeakReference<Class<?>> createAndDiscardBuilder() {
+    final Class<?> builder = new BuilderInterfaceLoader()
+        .makeBuilderInterface("DiscardedBuilder");
+    return new WeakReference<Class<?>>(newBuilder(builder).getClass());
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Builder<?> newBuilder(final Class<?> builder) {
+    return (Builder<?>) BuilderFactories.factoryFor((Class) builder)
+        .newBuilder();
+  }
+
+}
@@ -0,0 +1,72 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.SequenceBuilder;
+
+import com.example.beans.FruitBuilder;
+import com.example.beans.StringBeanBuilder;
+import com.example.beans.generics.BuilderDeclaringBaseBuilderProperty;
+import com.example.generated.BuilderInterfaceLoader;
+
+public class BuilderInterfacesTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldNotTreatBaseInterfacesAsBuilders() {
+    assertThat(BuilderInterfaces.isBuilderInterface(Builder.class)).isFalse();
+    assertThat(BuilderInterfaces.isBuilderInterface(SequenceBuilder.class))
+        .isFalse();
+    assertThat(BuilderInterfaces.isBuilderInterface(FruitBuilder.class))
+        .isTrue();
+  }
+
+  @Test
+  public void shouldFindBuilderInterfacesInDirectories() {
+    final List<Class<?>> actual = BuilderInterfaces.inPackage(
+        "com.example.beans", getClass().getClassLoader());
+    assertThat(actual).contains(FruitBuilder.class, StringBeanBuilder.class,
+        BuilderDeclaringBaseBuilderProperty.class);
+    assertThat(actual).doesNotContain(Builder.class);
+  }
+
+  @Test
+  public void shouldFindBuilderInterfacesInJars() throws Exception {
+    final File jar = this.folder.newFile("builders.jar");
+    final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    try {
+      out.putNextEntry(new JarEntry("com/example/generated/"));
+      out.putNextEntry(new JarEntry(
+          "com/example/generated/JarredBuilder.class"));
+      out.write(BuilderInterfaceLoader.builderInterfaceBytes("JarredBuilder"));
+      out.closeEntry();
+    } finally {
+      out.close();
+    }
+
+    final URLClassLoader loader = new URLClassLoader(new URL[] { jar.toURI()
+        .toURL() }, getClass().getClassLoader());
+    final List<String> names = new ArrayList<String>();
+    for (final Class<?> each : BuilderInterfaces.inPackage(
+        "com.example.generated", loader)) {
+      names.add(each.getName());
+    }
+    assertThat(names).contains("com.example.generated.JarredBuilder");
+  }
+
+}
@@ -0,0 +1,217 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.QuickBuilderError;
+import org.pitest.quickbuilder.builders.QB;
+
+import com.example.beans.StringBean;
+import com.example.generated.BuilderInterfaceLoader;
+
+public class BuilderRegistryTest {
+
+  private static final int THREADS    = 64;
+  private static final int INTERFACES = 300;
+
+  private ExecutorService  executor;
+
+  @Before
+  public void setUp() {
+    this.executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldCreateEachClassOnlyOnceWhenRequestedConcurrently()
+      throws Exception {
+    final BuilderRegistry testee = new BuilderRegistry();
+    final AtomicInteger creations = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+
+    final List<Future<Class<?>>> results = new ArrayList<Future<Class<?>>>();
+    for (int i = 0; i != THREADS; i++) {
+      results.add(this.executor.submit(new Callable<Class<?>>() {
+        @Override
+        public Class<?> call() throws Exception {
+          start.await();
+          return testee.findOrCreate(Runnable.class, new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+              creations.incrementAndGet();
+              Thread.sleep(10);
+              return String.class;
+            }
+          });
+        }
+      }));
+    }
+
+    start.countDown();
+    for (final Future<Class<?>> each : results) {
+      assertThat(each.get()).isEqualTo(String.class);
+    }
+    assertThat(creations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRetryCreationAfterFailure() throws Exception {
+    final BuilderRegistry testee = new BuilderRegistry();
+    try {
+      testee.findOrCreate(Runnable.class, new Callable<Class<?>>() {
+        @Override
+        public Class<?> call() throws Exception {
+          throw new QuickBuilderError("fail");
+        }
+      });
+      fail("Expected an error");
+    } catch (final QuickBuilderError e) {
+      // pass
+    }
+
+    assertThat(testee.findOrCreate(Runnable.class, new Callable<Class<?>>() {
+      @Override
+      public Class<?> call() throws Exception {
+        return String.class;
+      }
+    })).isEqualTo(String.class);
+  }
+
+  @Test
+  public void shouldRecreateClassAfterEviction() throws Exception {
+    final BuilderRegistry testee = new BuilderRegistry();
+    testee.findOrCreate(Runnable.class, constant(String.class));
+    testee.evict(Runnable.class);
+    assertThat(testee.findOrCreate(Runnable.class, constant(Integer.class)))
+        .isEqualTo(Integer.class);
+  }
+
+  @Test
+  public void shouldGenerateEachBuilderOnceWhenHammeredFromManyThreads()
+      throws Exception {
+    final List<Class<?>> builders = makeInterfaces();
+    final CountingRegistry registry = new CountingRegistry();
+
+    hammer(builders, new Creator() {
+      @Override
+      public Builder<?> create(final Class<?> builder) {
+        return builder(builder, registry);
+      }
+    });
+
+    assertThat(registry.definitions).hasSize(INTERFACES);
+    for (final AtomicInteger each : registry.definitions.values()) {
+      assertThat(each.get()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void shouldReturnSameBuilderClassToAllThreadsCallingQB()
+      throws Exception {
+    final List<Class<?>> builders = makeInterfaces();
+    final ConcurrentMap<Class<?>, Class<?>> seen = new ConcurrentHashMap<Class<?>, Class<?>>();
+
+    hammer(builders, new Creator() {
+      @SuppressWarnings({ "unchecked", "rawtypes" })
+      @Override
+      public Builder<?> create(final Class<?> builder) {
+        final Builder<?> b = (Builder<?>) QB.builder((Class) builder);
+        final Class<?> previous = seen.putIfAbsent(builder, b.getClass());
+        assertThat(previous == null || previous == b.getClass()).isTrue();
+        return b;
+      }
+    });
+
+    assertThat(seen).hasSize(INTERFACES);
+  }
+
+  private void hammer(final List<Class<?>> builders, final Creator creator)
+      throws Exception {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> results = new ArrayList<Future<?>>();
+    for (int t = 0; t != THREADS; t++) {
+      final int offset = t;
+      results.add(this.executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          start.await();
+          for (int i = 0; i != INTERFACES; i++) {
+            final Class<?> each = builders.get((i + offset) % INTERFACES);
+            assertThat(creator.create(each).build()).isInstanceOf(
+                StringBean.class);
+          }
+          return null;
+        }
+      }));
+    }
+
+    start.countDown();
+    for (final Future<?> each : results) {
+      each.get(60, TimeUnit.SECONDS);
+    }
+  }
+
+  private static List<Class<?>> makeInterfaces() {
+    final BuilderInterfaceLoader interfaces = new BuilderInterfaceLoader();
+    final List<Class<?>> builders = new ArrayList<Class<?>>();
+    for (int i = 0; i != INTERFACES; i++) {
+      builders.add(interfaces.makeBuilderInterface("GeneratedBuilder" + i));
+    }
+    return builders;
+  }
+
+  private static Callable<Class<?>> constant(final Class<?> c) {
+    return new Callable<Class<?>>() {
+      @Override
+      public Class<?> call() throws Exception {
+        return c;
+      }
+    };
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Builder<?> builder(final Class<?> each,
+      final BuilderRegistry registry) {
+    return (Builder<?>) new TypeScanner((Class) each, null, registry)
+        .builder();
+  }
+
+  interface Creator {
+    Builder<?> create(Class<?> builder);
+  }
+
+  static class CountingRegistry extends BuilderRegistry {
+
+    final ConcurrentMap<String, AtomicInteger> definitions = new ConcurrentHashMap<String, AtomicInteger>();
+
+    @Override
+    Class<?> define(final Class<?> builder, final String name,
+        final byte[] bytes) {
+      this.definitions.putIfAbsent(name, new AtomicInteger());
+      this.definitions.get(name).incrementAndGet();
+      return super.define(builder, name, bytes);
+    }
+
+  }
+
+}
@@ -0,0 +1,45 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import com.example.beans.FruitBean;
+import com.example.immutable.IntegerValue;
+
+public class BuiltTypeModelTest {
+
+  @Test
+  public void shouldShareModelBetweenLookups() {
+    assertThat(BuiltTypeModel.of(FruitBean.class)).isSameAs(
+        BuiltTypeModel.of(FruitBean.class));
+  }
+
+  @Test
+  public void shouldFindSetterByNameAndType() {
+    final Setter actual = BuiltTypeModel.of(FruitBean.class).setter("Name",
+        Type.getType(String.class));
+    assertThat(actual.name()).isEqualTo("setName");
+    assertThat(actual.desc()).isEqualTo("(Ljava/lang/String;)V");
+  }
+
+  @Test
+  public void shouldNotFindSetterWithWrongType() {
+    assertThat(
+        BuiltTypeModel.of(FruitBean.class).setter("Ripeness",
+            Type.getType(String.class))).isNull();
+    assertThat(
+        BuiltTypeModel.of(FruitBean.class).setter("Ripeness", Type.INT_TYPE))
+        .isNotNull();
+  }
+
+  @Test
+  public void shouldReportMissingNoArgsConstructor() {
+    assertThat(BuiltTypeModel.of(FruitBean.class).noDefaultConstructor())
+        .isNull();
+    assertThat(BuiltTypeModel.of(IntegerValue.class).noDefaultConstructor())
+        .isInstanceOf(NoSuchMethodException.class);
+  }
+
+}
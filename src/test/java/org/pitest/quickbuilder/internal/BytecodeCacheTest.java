@@ -0,0 +1,105 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.beans.FruitBean;
+import com.example.beans.FruitBuilder;
+import com.example.beans.StringBean;
+import com.example.beans.StringBeanBuilder;
+
+public class BytecodeCacheTest {
+
+  private static final String NAME  = "com.example.Foo__quickbuilder__";
+  private static final byte[] BYTES = { 1, 2, 3 };
+
+  @Rule
+  public TemporaryFolder      folder = new TemporaryFolder();
+
+  private BytecodeCache       testee;
+
+  @Before
+  public void setUp() {
+    this.testee = new BytecodeCache(this.folder.getRoot());
+  }
+
+  @Test
+  public void shouldMissWhenNothingStored() {
+    assertThat(this.testee.load(NAME, "abc")).isNull();
+    assertThat(this.testee.statistics().misses()).isEqualTo(1);
+    assertThat(this.testee.statistics().hits()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldReturnStoredBytesWhenFingerprintMatches() {
+    this.testee.store(NAME, "abc", BYTES);
+    assertThat(this.testee.load(NAME, "abc")).isEqualTo(BYTES);
+    assertThat(this.testee.statistics().hits()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldShareEntriesBetweenInstances() {
+    this.testee.store(NAME, "abc", BYTES);
+    final BytecodeCache other = new BytecodeCache(this.folder.getRoot());
+    assertThat(other.load(NAME, "abc")).isEqualTo(BYTES);
+  }
+
+  @Test
+  public void shouldInvalidateEntryWhenFingerprintDiffers() {
+    this.testee.store(NAME, "abc", BYTES);
+    assertThat(this.testee.load(NAME, "def")).isNull();
+    assertThat(this.testee.statistics().invalidations()).isEqualTo(1);
+    assertThat(this.testee.statistics().misses()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldInvalidateUnreadableEntries() throws IOException {
+    final FileOutputStream out = new FileOutputStream(new File(
+        this.folder.getRoot(), NAME + ".qbc"));
+    out.write(BYTES);
+    out.close();
+    assertThat(this.testee.load(NAME, "abc")).isNull();
+    assertThat(this.testee.statistics().invalidations()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldDoNothingWhenNotEnabled() {
+    this.testee = new BytecodeCache(null);
+    this.testee.store(NAME, "abc", BYTES);
+    assertThat(this.testee.load(NAME, "abc")).isNull();
+    assertThat(this.testee.statistics().misses()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldGenerateSameFingerprintForSameTypes() {
+    assertThat(fingerprint(FruitBuilder.class, FruitBean.class, "a"))
+        .isEqualTo(fingerprint(FruitBuilder.class, FruitBean.class, "a"));
+  }
+
+  @Test
+  public void shouldGenerateDifferentFingerprintsForDifferentTypes() {
+    assertThat(fingerprint(FruitBuilder.class, FruitBean.class, "a"))
+        .isNotEqualTo(fingerprint(StringBeanBuilder.class, StringBean.class,
+            "a"));
+  }
+
+  @Test
+  public void shouldGenerateDifferentFingerprintsForDifferentVariants() {
+    assertThat(fingerprint(FruitBuilder.class, FruitBean.class, "a"))
+        .isNotEqualTo(fingerprint(FruitBuilder.class, FruitBean.class, "b"));
+  }
+
+  private static String fingerprint(final Class<?> builder,
+      final Class<?> builtType, final String variant) {
+    return BytecodeCache.fingerprint(builder, builtType, variant);
+  }
+
+}
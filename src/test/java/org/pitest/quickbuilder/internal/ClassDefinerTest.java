@@ -0,0 +1,87 @@
+package org.pitest.quickbuilder.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+import com.example.beans.FruitBean;
+import com.example.beans.FruitBuilder;
+
+public class ClassDefinerTest {
+
+  interface Inaccessible extends Builder<String> {
+
+  }
+
+  interface InaccessibleFruitBuilder extends Builder<FruitBean> {
+    InaccessibleFruitBuilder withName(String name);
+  }
+
+  @Test
+  public void shouldThrowErrorWhenAskedToImplementInaccessibleInterfaceInALoader() {
+    try {
+      builder(Inaccessible.class, new LoaderDefiner());
+      fail("expected an error");
+    } catch (final QuickBuilderError e) {
+      assertThat(e).hasMessageContaining(
+          "Cannot implement the interface " + Inaccessible.class.getName());
+    }
+  }
+
+  @Test
+  public void shouldImplementNonPublicInterfacesAsHiddenClasses() {
+    assumeTrue(HiddenClassDefiner.isAvailable());
+    final InaccessibleFruitBuilder b = builder(InaccessibleFruitBuilder.class,
+        new HiddenClassDefiner());
+    assertThat(b.withName("foo").build().getName()).isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldDefineHiddenClassesInPackageOfInterface() {
+    assumeTrue(HiddenClassDefiner.isAvailable());
+    final FruitBuilder b = builder(FruitBuilder.class, new HiddenClassDefiner());
+    assertThat(b.getClass().getPackage()).isEqualTo(
+        FruitBuilder.class.getPackage());
+    assertThat(b.getClass().getClassLoader()).isSameAs(
+        FruitBuilder.class.getClassLoader());
+    assertThat(b.withName("foo").build().getName()).isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldBuildSameValuesWithEitherDefiner() {
+    final FruitBuilder viaLoader = builder(FruitBuilder.class,
+        new LoaderDefiner());
+    final FruitBuilder preferred = builder(FruitBuilder.class,
+        ClassDefiner.preferred());
+    final FruitBean a = viaLoader.withName("foo").withId("bar").build();
+    final FruitBean b = preferred.withName("foo").withId("bar").build();
+    assertThat(a.getName()).isEqualTo(b.getName());
+    assertThat(a.getId()).isEqualTo(b.getId());
+  }
+
+  @Test
+  public void shouldUseLoaderDefinerWhenRequestedBySystemProperty() {
+    final String previous = System.getProperty(ClassDefiner.BACKEND_PROPERTY);
+    System.setProperty(ClassDefiner.BACKEND_PROPERTY, LoaderDefiner.NAME);
+    try {
+      assertThat(ClassDefiner.preferred().name()).isEqualTo(LoaderDefiner.NAME);
+    } finally {
+      if (previous == null) {
+        System.clearProperty(ClassDefiner.BACKEND_PROPERTY);
+      } else {
+        System.setProperty(ClassDefiner.BACKEND_PROPERTY, previous);
+      }
+    }
+  }
+
+  private static <T, B extends Builder<T>> B builder(final Class<B> builder,
+      final ClassDefiner definer) {
+    return new TypeScanner<T, B>(builder, null, new BuilderRegistry(definer))
+        .builder();
+  }
+
+}
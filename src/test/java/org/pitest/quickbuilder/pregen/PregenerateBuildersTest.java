@@ -0,0 +1,167 @@
+package org.pitest.quickbuilder.pregen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.quickbuilder.Builder;
+import org.pitest.quickbuilder.Generator;
+import org.pitest.quickbuilder.QuickBuilderError;
+
+import com.example.beans.StringBean;
+import com.example.beans.StringBeanBuilder;
+import com.example.beans.misuse.BuilderDeclaringNonExistingProperty;
+
+public class PregenerateBuildersTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File           classes;
+  private File           output;
+
+  @Before
+  public void setUp() throws IOException {
+    this.classes = this.folder.newFolder("classes");
+    this.output = this.folder.newFolder("output");
+  }
+
+  @Test
+  public void shouldGenerateClassesForBuilderInterfaces() throws Exception {
+    copyClass(StringBeanBuilder.class);
+    copyClass(StringBean.class);
+
+    assertThat(testee().generate()).containsExactly(
+        StringBeanBuilder.class.getName() + "__quickbuilder__");
+    assertThat(
+        new File(this.output,
+            "com/example/beans/StringBeanBuilder__quickbuilder__.class"))
+        .exists();
+  }
+
+  @Test
+  public void shouldGenerateWorkingBuilders() throws Exception {
+    copyClass(StringBeanBuilder.class);
+    testee().generate();
+
+    final ClassLoader loader = new URLClassLoader(new URL[] { this.output
+        .toURI().toURL() }, getClass().getClassLoader());
+    final StringBeanBuilder builder = (StringBeanBuilder) loader
+        .loadClass(StringBeanBuilder.class.getName() + "__quickbuilder__")
+        .getDeclaredConstructor(Generator.class).newInstance((Object) null);
+
+    assertThat(builder.withName("foo").build().getName()).isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldGenerateWorkingBuildersForPackagePrivateInterfaces()
+      throws Exception {
+    copyClass(PackagePrivateBuilder.class);
+    final String builderName = PackagePrivateBuilder.class.getName()
+        + "__quickbuilder__";
+
+    assertThat(testee().generate()).containsExactly(builderName);
+
+    // the interface and builder must share a loader to share a package
+    final ClassLoader loader = new PackageLoader(new URL[] {
+        this.classes.toURI().toURL(), this.output.toURI().toURL() },
+        PackagePrivateBuilder.class.getName());
+    final Object builder = loader.loadClass(builderName)
+        .getDeclaredConstructor(Generator.class).newInstance((Object) null);
+    final Object named = builder.getClass()
+        .getMethod("withName", String.class).invoke(builder, "foo");
+
+    assertThat(((StringBean) ((Builder<?>) named).build()).getName())
+        .isEqualTo("foo");
+  }
+
+  @Test
+  public void shouldIgnoreClassesThatAreNotBuilders() throws Exception {
+    copyClass(StringBean.class);
+    assertThat(testee().generate()).isEmpty();
+  }
+
+  @Test
+  public void shouldFailWhenBuilderCannotBeImplemented() throws Exception {
+    copyClass(BuilderDeclaringNonExistingProperty.class);
+    try {
+      testee().generate();
+      fail("Expected an error");
+    } catch (final QuickBuilderError e) {
+      assertThat(e.getMessage()).contains(
+          BuilderDeclaringNonExistingProperty.class.getName());
+    }
+  }
+
+  private PregenerateBuilders testee() {
+    return new PregenerateBuilders(this.classes, this.output, getClass()
+        .getClassLoader());
+  }
+
+  private void copyClass(final Class<?> c) throws IOException {
+    final String resource = c.getName().replace('.', '/') + ".class";
+    final File file = new File(this.classes, resource);
+    file.getParentFile().mkdirs();
+    final InputStream is = getClass().getClassLoader().getResourceAsStream(
+        resource);
+    final OutputStream os = new FileOutputStream(file);
+    try {
+      final byte[] buffer = new byte[4096];
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        os.write(buffer, 0, read);
+      }
+    } finally {
+      is.close();
+      os.close();
+    }
+  }
+
+  interface PackagePrivateBuilder extends Builder<StringBean> {
+    PackagePrivateBuilder withName(String name);
+  }
+
+  /**
+   * Loads classes whose names start with a prefix itself, leaving everything
+   * else to the parent.
+   */
+  private static class PackageLoader extends URLClassLoader {
+
+    private final String prefix;
+
+    PackageLoader(final URL[] urls, final String prefix) {
+      super(urls, PregenerateBuildersTest.class.getClassLoader());
+      this.prefix = prefix;
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve)
+        throws ClassNotFoundException {
+      if (!name.startsWith(this.prefix)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> c = findLoadedClass(name);
+        if (c == null) {
+          c = findClass(name);
+        }
+        if (resolve) {
+          resolveClass(c);
+        }
+        return c;
+      }
+    }
+  }
+
+}